@@ -1,33 +1,146 @@
 package edu.ncsu.csc216.product_backlog.model.backlog;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import edu.ncsu.csc216.product_backlog.model.command.Command;
+import edu.ncsu.csc216.product_backlog.model.command.CommandBatch;
+import edu.ncsu.csc216.product_backlog.model.command.CommandBatch.Mode;
+import edu.ncsu.csc216.product_backlog.model.command.CommandResult;
+import edu.ncsu.csc216.product_backlog.model.command.CommandResult.Status;
+import edu.ncsu.csc216.product_backlog.model.io.CommandJournal;
 import edu.ncsu.csc216.product_backlog.model.io.ProductsReader;
+import edu.ncsu.csc216.product_backlog.model.io.ProductsSnapshot;
 import edu.ncsu.csc216.product_backlog.model.io.ProductsWriter;
 import edu.ncsu.csc216.product_backlog.model.product.Product;
 import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.task.Task.State;
+import edu.ncsu.csc216.product_backlog.model.task.TaskConflictException;
 import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
 
 /**
  * Implements the Singleton method to manage the backlog
+ *
+ * Several clients can use the manager at once, each through its own
+ * BacklogSession, which keeps that client's current product. The manager's own
+ * product methods work on a default session, which is the one the GUI uses.
+ *
+ * The list of products is guarded by a read/write lock. Loading, clearing,
+ * adding, renaming and deleting products take it for writing. Everything else
+ * takes it for reading, and then takes the lock of the product it works on, so
+ * clients working on different products don't wait for each other. Adding and
+ * deleting tasks and batches of commands take the product's lock for writing.
+ * Single commands only take it for reading, then hold their task's monitor
+ * and claim the task through its version, so commands on different tasks
+ * don't wait for each other either. Readers copy a task only while its
+ * version is steady, so they never see half of a command. Locks are always
+ * taken in that order, with the task's monitor after the product's lock and
+ * the save lock last. The save lock is only held briefly, to schedule saves
+ * and to swap the journal, and never while writing to disk.
+ *
+ * Saves are written on a background thread. A save copies the products while
+ * holding the write lock of every product, so it never sees a half finished
+ * change, and writes the copy after letting go of the locks.
+ *
+ * Once the products are loaded from or saved to a file, each change after that
+ * is also appended to the file's CommandJournal, so it's on disk without
+ * rewriting the whole file. The journal is replayed the next time the file is
+ * loaded, and is compacted into a fresh save once it gets long. A change is
+ * journaled while its locks are still held, so changes that have to be in
+ * order are journaled in order. Changes from different threads share the
+ * journal's forces to disk, but a thread still holds its locks until its own
+ * record is on disk. So changes to the same task wait for each other's
+ * force, and adding, renaming and deleting products, which hold the products
+ * lock for writing, stop every other client for one force. If a change can't be
+ * written to the journal, the method that made it throws an
+ * UnsavedChangeException after the change is made, and nothing more is
+ * journaled until the next save.
  */
 public class BacklogManager {
 
 	/**
-	 * This is the current Product instance that this class is working with
+	 * How long in milliseconds a save waits before writing, so repeated saves to
+	 * the same file are written once
 	 */
-	private Product currentProduct;
+	private static final long SAVE_DELAY_MILLIS = 250;
+
+	/**
+	 * Number of journal records after which the products are saved again and the
+	 * journal starts over
+	 */
+	private static final int COMPACT_RECORDS = 1000;
 
 	/**
 	 * This is the single instance of the BacklogManagers
 	 */
-	private static BacklogManager singleton;
+	private static volatile BacklogManager singleton;
 
 	/**
 	 * This field holds all the products
 	 */
-	private ArrayList<Product> products = new ArrayList<Product>();
+	private final ArrayList<Product> products = new ArrayList<Product>();
+
+	/**
+	 * This guards the list of products and their names
+	 */
+	private final ReentrantReadWriteLock productsLock = new ReentrantReadWriteLock();
+
+	/**
+	 * This is the session the manager's own product methods work on
+	 */
+	private final BacklogSession defaultSession = new BacklogSession(this);
+
+	/**
+	 * This guards the saves and the save error, and is held while the journal
+	 * is opened or closed
+	 */
+	private final Object saveLock = new Object();
+
+	/**
+	 * This runs saves off of the calling thread
+	 */
+	private final ScheduledExecutorService saveExecutor = Executors
+			.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "BacklogManager save");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+
+	/**
+	 * This holds the saves that haven't been written yet, keyed by file name
+	 */
+	private final HashMap<String, Future<?>> pendingSaves = new HashMap<String, Future<?>>();
+
+	/**
+	 * This is the first background save failure since the last flushSaves, or
+	 * null if there wasn't one
+	 */
+	private IllegalArgumentException saveError;
+
+	/**
+	 * This records changes made since the products were loaded or saved, or is
+	 * null if they don't match any file. It's only replaced while every product
+	 * is locked for writing, or the products lock is held for writing, so a
+	 * change is always journaled to the journal that was open when it was made.
+	 */
+	private volatile CommandJournal journal;
+
+	/**
+	 * This is the name of the products file the journal belongs to
+	 */
+	private volatile String journalFileName;
 
 	/**
 	 * The constructor for BacklogManager (only one instance of it b/c of singleton)
@@ -38,48 +151,394 @@ public class BacklogManager {
 
 	/**
 	 * Retrieves the singleton instance of the BacklogManager. This method follows
-	 * the Singleton design pattern.
+	 * the Singleton design pattern, and is safe to call from any thread.
 	 *
 	 * @return The singleton instance of the BacklogManager.
 	 */
 	public static BacklogManager getInstance() {
-		if (singleton == null) {
-			singleton = new BacklogManager();
+		BacklogManager instance = singleton;
+		if (instance == null) {
+			synchronized (BacklogManager.class) {
+				instance = singleton;
+				if (instance == null) {
+					instance = new BacklogManager();
+					singleton = instance;
+				}
+			}
 		}
 
-		return singleton;
+		return instance;
+	}
+
+	/**
+	 * Opens a new session with no current product, for a client that works on
+	 * the backlog alongside others.
+	 *
+	 * @return The new session.
+	 */
+	public BacklogSession openSession() {
+		return new BacklogSession(this);
 	}
 
 	/**
 	 * Saves the current state of the BacklogManager to a file with the given file
-	 * name.
+	 * name. Files named with ProductsSnapshot.SNAPSHOT_EXTENSION, or that are
+	 * already snapshots, are saved in the binary snapshot format. The file is
+	 * written on a background thread shortly after this returns, and any other
+	 * saves to the same file before then are written with it. Use flushSaves to
+	 * wait for the write and find out if it failed.
 	 *
 	 * @param fileName The name of the file to save to.
+	 * @throws IllegalArgumentException if there is nothing to save
 	 */
 	public void saveToFile(String fileName) {
-		if (currentProduct == null || currentProduct.getTasks().size() < 1) {
+		defaultSession.saveToFile(fileName);
+	}
+
+	/**
+	 * Saves all of the products to a file with the given file name, as long as a
+	 * session's current product has tasks. See saveToFile(String).
+	 *
+	 * @param currentProduct The session's current product, or null if there
+	 *                       isn't one.
+	 * @param fileName       The name of the file to save to.
+	 * @throws IllegalArgumentException if there is nothing to save
+	 */
+	void saveToFile(Product currentProduct, String fileName) {
+		if (currentProduct == null || getTaskCount(currentProduct) < 1) {
 			throw new IllegalArgumentException("Unable to save file.");
 		} else {
-			ProductsWriter.writeProductsToFile(fileName, products);
+			scheduleSave(fileName);
+		}
+	}
+
+	/**
+	 * Schedules a background save to the given file, unless one is already
+	 * waiting to be written
+	 *
+	 * @param fileName The name of the file to save to.
+	 */
+	private void scheduleSave(final String fileName) {
+		synchronized (saveLock) {
+			if (!pendingSaves.containsKey(fileName)) {
+				pendingSaves.put(fileName, saveExecutor.schedule(new Runnable() {
+					@Override
+					public void run() {
+						writeFile(fileName);
+					}
+				}, SAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS));
+			}
+		}
+	}
+
+	/**
+	 * Writes the products to a file for a save that was waiting, then starts a
+	 * new journal for that file. Products without tasks aren't written to the
+	 * file, so they go in the new journal. A failure is kept so flushSaves can
+	 * report it.
+	 *
+	 * If there's a journal, the products are copied with every product locked
+	 * for writing, and the copy is written after the locks are released, so
+	 * clients only wait for the copy. Changes made while the file is written go
+	 * in the old journal as usual, and are carried over to the new one. The old
+	 * journal is kept until the new one is started, so if the file can't be
+	 * written, changes are still journaled against the file they were loaded
+	 * from. With no journal to hold those changes, the products stay locked
+	 * until the new journal is started.
+	 *
+	 * @param fileName The name of the file to save to.
+	 */
+	private void writeFile(String fileName) {
+		synchronized (saveLock) {
+			pendingSaves.remove(fileName);
+		}
+
+		ArrayList<Product> copies;
+		CommandJournal old;
+		long position;
+		int recordCount;
+		lockProducts();
+		try {
+			old = journal;
+			// A journal that couldn't be replaced is left closed, and has nothing to carry over
+			if (old == null || !old.isOpen()) {
+				try {
+					writeProducts(fileName, products);
+					startJournal(fileName, products, null, 0, 0);
+				} catch (IllegalArgumentException e) {
+					saveFailed(e);
+				}
+				return;
+			}
+
+			copies = new ArrayList<Product>(products.size());
+			for (int i = 0; i < products.size(); i++) {
+				copies.add(new Product(products.get(i)));
+			}
+			// Nothing is being journaled while every product is locked
+			position = old.getPosition();
+			recordCount = old.getRecordCount();
+		} finally {
+			unlockProducts();
+		}
+
+		try {
+			writeProducts(fileName, copies);
+		} catch (IllegalArgumentException e) {
+			saveFailed(e);
+			return;
+		}
+
+		lockProducts();
+		try {
+			// A load or clear since the copy replaced the products, and a failed
+			// change closed the journal, so the file can't be journaled
+			if (journal == old) {
+				startJournal(fileName, copies, old, position, recordCount);
+			}
+		} catch (IllegalArgumentException e) {
+			saveFailed(e);
+		} finally {
+			unlockProducts();
+		}
+	}
+
+	/**
+	 * Locks every product for writing, holding the products lock for reading so
+	 * the list doesn't change. Nothing can be changed or journaled until
+	 * unlockProducts is called.
+	 */
+	private void lockProducts() {
+		productsLock.readLock().lock();
+		for (int i = 0; i < products.size(); i++) {
+			products.get(i).getLock().writeLock().lock();
+		}
+	}
+
+	/**
+	 * Releases the locks taken by lockProducts
+	 */
+	private void unlockProducts() {
+		for (int i = 0; i < products.size(); i++) {
+			products.get(i).getLock().writeLock().unlock();
+		}
+		productsLock.readLock().unlock();
+	}
+
+	/**
+	 * Writes products to a file in the format its name calls for
+	 *
+	 * @param fileName The name of the file to save to.
+	 * @param saved    The products to write.
+	 * @throws IllegalArgumentException If the file can't be written.
+	 */
+	private void writeProducts(String fileName, ArrayList<Product> saved) {
+		if (ProductsSnapshot.isSnapshot(fileName)) {
+			ProductsSnapshot.writeSnapshot(fileName, saved);
+		} else {
+			ProductsWriter.writeProductsToFile(fileName, saved);
 		}
 	}
 
 	/**
-	 * Loads the state of the BacklogManager from a file with the given file name.
+	 * Starts the journal for a file that was just written and makes it the
+	 * journal. It records the products that were left out of the file for having
+	 * no tasks, then the records the old journal got since the products were
+	 * written. The caller holds every product's lock, so the old journal isn't
+	 * written to meanwhile.
+	 *
+	 * @param fileName    The name of the file that was written.
+	 * @param saved       The products that were written.
+	 * @param old         The journal to carry records over from, or null if
+	 *                    there's nothing to carry over.
+	 * @param position    Where the old journal was when the products were
+	 *                    written.
+	 * @param recordCount How many changes the old journal had then.
+	 * @throws IllegalArgumentException If the journal can't be started.
+	 */
+	private void startJournal(String fileName, ArrayList<Product> saved, CommandJournal old, long position,
+			int recordCount) {
+		byte[] carried = old == null ? null : old.readSince(position);
+		int carriedCount = old == null ? 0 : old.getRecordCount() - recordCount;
+
+		// A journal for the same file no longer matches it, and the new one is
+		// renamed over it, so it's closed first. It's left in place if the new
+		// one can't be started, so the next change reports that it wasn't saved.
+		synchronized (saveLock) {
+			if (journal != null && journal.belongsTo(fileName)) {
+				journal.close();
+			}
+		}
+
+		CommandJournal created = CommandJournal.create(fileName);
+		try {
+			for (int i = 0; i < saved.size(); i++) {
+				if (saved.get(i).getTasks().size() == 0) {
+					created.productAdded(saved.get(i).getProductName());
+				}
+			}
+			if (carried != null && carried.length > 0) {
+				created.appendRecords(carried, carriedCount);
+			}
+		} catch (IllegalArgumentException e) {
+			created.close();
+			throw e;
+		}
+
+		synchronized (saveLock) {
+			closeJournal();
+			journal = created;
+			journalFileName = fileName;
+		}
+	}
+
+	/**
+	 * Keeps a save's failure for flushSaves to report, unless there's already
+	 * one
+	 *
+	 * @param failure The error from the save.
+	 */
+	private void saveFailed(IllegalArgumentException failure) {
+		synchronized (saveLock) {
+			if (saveError == null) {
+				saveError = failure;
+			}
+		}
+	}
+
+	/**
+	 * Closes the journal, if there is one, so changes aren't recorded in it. The
+	 * caller holds the save lock.
+	 */
+	private void closeJournal() {
+		if (journal != null) {
+			journal.close();
+			journal = null;
+			journalFileName = null;
+		}
+	}
+
+	/**
+	 * Checks a change was written to the journal. If it wasn't, the journal is
+	 * closed and the caller is told straight away, since the change is only in
+	 * memory until the next save. A journal that has gotten long is compacted
+	 * by saving the products to its file again.
+	 *
+	 * @param current The journal the change was written to.
+	 * @param failure The error from writing the change, or null if it was
+	 *                written.
+	 * @throws UnsavedChangeException If the change wasn't written.
+	 */
+	private void journalWritten(CommandJournal current, IllegalArgumentException failure) {
+		if (failure != null) {
+			synchronized (saveLock) {
+				if (journal == current) {
+					closeJournal();
+				}
+			}
+			throw new UnsavedChangeException();
+		} else if (current.getRecordCount() >= COMPACT_RECORDS) {
+			synchronized (saveLock) {
+				if (journal == current) {
+					scheduleSave(journalFileName);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Waits for every save that hasn't been written yet to finish.
+	 *
+	 * @throws IllegalArgumentException if any save since the last call failed
+	 */
+	public void flushSaves() {
+		ArrayList<Future<?>> saves;
+		synchronized (saveLock) {
+			saves = new ArrayList<Future<?>>(pendingSaves.values());
+		}
+
+		for (int i = 0; i < saves.size(); i++) {
+			try {
+				saves.get(i).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalArgumentException("Unable to save file.");
+			} catch (ExecutionException e) {
+				throw new IllegalArgumentException("Unable to save file.");
+			}
+		}
+
+		synchronized (saveLock) {
+			if (saveError != null) {
+				saveError = null;
+				throw new IllegalArgumentException("Unable to save file.");
+			}
+		}
+	}
+
+	/**
+	 * Loads the state of the BacklogManager from a file with the given file name,
+	 * in either the text or the binary snapshot format, and makes its first
+	 * product the current product. Changes recorded in the file's journal are
+	 * applied on top. If there were no products before, later changes are
+	 * recorded in that journal, as long as it can be written. Otherwise the
+	 * products no longer match any one file, so the journal is only read and
+	 * nothing is journaled until the next save.
 	 *
 	 * @param fileName The name of the file to load from.
+	 * @throws IllegalArgumentException If the file can't be read or has no
+	 *                                  products.
 	 */
 	public void loadFromFile(String fileName) {
 		ArrayList<Product> newProducts = new ArrayList<Product>();
 
-		newProducts = ProductsReader.readProductsFile(fileName);
+		if (ProductsSnapshot.isSnapshot(fileName)) {
+			newProducts = ProductsSnapshot.readSnapshot(fileName);
+		} else {
+			newProducts = ProductsReader.readProductsFile(fileName);
+		}
+		if (newProducts.size() == 0) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+
+		boolean append;
+		productsLock.readLock().lock();
+		try {
+			append = products.size() == 0;
+		} finally {
+			productsLock.readLock().unlock();
+		}
 
-		for (int i = 0; i < newProducts.size(); i++) {
-			products.add(newProducts.get(i));
+		CommandJournal loaded = CommandJournal.load(fileName, newProducts, append);
+		if (newProducts.size() == 0) {
+			if (loaded != null) {
+				loaded.close();
+			}
+			throw new IllegalArgumentException("Unable to load file.");
 		}
+		Product firstProduct = newProducts.get(0);
 
-		loadProduct(newProducts.get(0).getProductName());
-		currentProduct = newProducts.get(0);
+		productsLock.writeLock().lock();
+		try {
+			synchronized (saveLock) {
+				closeJournal();
+				if (loaded != null && products.size() == 0) {
+					journal = loaded;
+					journalFileName = fileName;
+				} else if (loaded != null) {
+					// Another load got in first, so the products are merged
+					loaded.close();
+				}
+			}
+
+			for (int i = 0; i < newProducts.size(); i++) {
+				products.add(newProducts.get(i));
+			}
+		} finally {
+			productsLock.writeLock().unlock();
+		}
+
+		defaultSession.setCurrentProduct(firstProduct);
 	}
 
 	/**
@@ -89,17 +548,33 @@ public class BacklogManager {
 	 * @throws IllegalArgumentException If the requested product is not available.
 	 */
 	public void loadProduct(String productName) {
-		boolean foundProduct = false;
+		defaultSession.loadProduct(productName);
+	}
 
-		for (int i = 0; i < products.size(); i++) {
-			if (products.get(i).getProductName().equals(productName)) {
-				currentProduct = products.get(i);
-				foundProduct = true;
+	/**
+	 * Finds the product with the given name.
+	 *
+	 * @param productName The name of the product to find.
+	 * @return The product.
+	 * @throws IllegalArgumentException If the requested product is not available.
+	 */
+	Product findProduct(String productName) {
+		productsLock.readLock().lock();
+		try {
+			Product found = null;
+
+			for (int i = 0; i < products.size(); i++) {
+				if (products.get(i).getProductName().equals(productName)) {
+					found = products.get(i);
+				}
 			}
-		}
 
-		if (!foundProduct) {
-			throw new IllegalArgumentException("Product not available.");
+			if (found == null) {
+				throw new IllegalArgumentException("Product not available.");
+			}
+			return found;
+		} finally {
+			productsLock.readLock().unlock();
 		}
 	}
 
@@ -109,37 +584,90 @@ public class BacklogManager {
 	 * @return A 2D string array containing task information.
 	 */
 	public String[][] getTasksAsArray() {
+		return defaultSession.getTasksAsArray();
+	}
+
+	/**
+	 * Retrieves the tasks in a product as a 2D string array.
+	 *
+	 * @param product The product, or null if there isn't one.
+	 * @return A 2D string array containing task information, or null if there
+	 *         isn't a product.
+	 */
+	String[][] getTasksAsArray(Product product) {
 
-		if (currentProduct == null) {
+		if (product == null) {
 			return null;
 		}
 
-		String[][] tasksArray = new String[currentProduct.getTasks().size()][4];
-		
+		product.getLock().readLock().lock();
+		try {
+			String[][] tasksArray = new String[product.getTasks().size()][4];
+
+			for (int i = 0; i < product.getTasks().size(); i++) {
+				tasksArray[i][0] = Integer.toString(product.getTasks().get(i).getTaskId());
+				// The state is the only one of these a command changes, so each row is whole
+				tasksArray[i][1] = product.getTasks().get(i).getStateName();
+				tasksArray[i][2] = product.getTasks().get(i).getTypeLongName();
+				tasksArray[i][3] = product.getTasks().get(i).getTitle();
+			}
 
-		for (int i = 0; i < currentProduct.getTasks().size(); i++) {
-			tasksArray[i][0] = Integer.toString(currentProduct.getTasks().get(i).getTaskId());
-			tasksArray[i][1] = currentProduct.getTasks().get(i).getStateName();
-			tasksArray[i][2] = currentProduct.getTasks().get(i).getTypeLongName();
-			tasksArray[i][3] = currentProduct.getTasks().get(i).getTitle();
+			return tasksArray;
+		} finally {
+			product.getLock().readLock().unlock();
 		}
+	}
 
-		return tasksArray;
+	/**
+	 * Counts the tasks in a product.
+	 *
+	 * @param product The product.
+	 * @return The number of tasks in the product.
+	 */
+	private int getTaskCount(Product product) {
+		product.getLock().readLock().lock();
+		try {
+			return product.getTasks().size();
+		} finally {
+			product.getLock().readLock().unlock();
+		}
 	}
 
 	/**
-	 * Retrieves a task from the current product by its ID.
+	 * Retrieves a copy of a task from the current product by its ID. The copy
+	 * is always one whole version of the task, and later changes don't show in
+	 * it.
 	 *
 	 * @param id The ID of the task to retrieve.
-	 * @return The task with the given ID, or null if no task with that ID exists in
-	 *         the current product.
+	 * @return A copy of the task with the given ID, or null if no task with that
+	 *         ID exists in the current product.
 	 */
 	public Task getTaskById(int id) {
 
-		return currentProduct.getTaskById(id);
+		return defaultSession.getTaskById(id);
 
 	}
 
+	/**
+	 * Retrieves a copy of a task from a product by its ID. The product's read
+	 * lock keeps the task in the product, and the copy is checked against the
+	 * task's version, so it never has half of a command in it.
+	 *
+	 * @param product The product.
+	 * @param id      The ID of the task to retrieve.
+	 * @return A copy of the task with the given ID, or null if no task with that
+	 *         ID exists in the product.
+	 */
+	Task getTaskById(Product product, int id) {
+		product.getLock().readLock().lock();
+		try {
+			Task task = product.getTaskById(id);
+			return task == null ? null : new Task(task);
+		} finally {
+			product.getLock().readLock().unlock();
+		}
+	}
+
 	/**
 	 * Executes a command on a task with the given ID in the current product.
 	 *
@@ -147,7 +675,255 @@ public class BacklogManager {
 	 * @param c  The command to execute on the task.
 	 */
 	public void executeCommand(int id, Command c) {
-		currentProduct.executeCommand(id, c);
+		defaultSession.executeCommand(id, c);
+	}
+
+	/**
+	 * Executes a command on a task with the given ID in the current product, if
+	 * the task is still at the expected version.
+	 *
+	 * @param id              The ID of the task to update.
+	 * @param expectedVersion The task version the caller last saw.
+	 * @param c               The command to execute on the task.
+	 * @throws TaskConflictException    If the task has changed since that
+	 *                                  version.
+	 * @throws IllegalArgumentException If there is no task with that ID.
+	 */
+	public void executeCommand(int id, int expectedVersion, Command c) {
+		defaultSession.executeCommand(id, expectedVersion, c);
+	}
+
+	/**
+	 * Executes a command on a task with the given ID in a product. If someone
+	 * else is updating the task, this waits for them and applies the command
+	 * after.
+	 *
+	 * @param product The product.
+	 * @param id      The ID of the task to update.
+	 * @param c       The command to execute on the task.
+	 * @throws IllegalArgumentException If the product isn't in the backlog.
+	 */
+	void executeCommand(Product product, int id, Command c) {
+		productsLock.readLock().lock();
+		try {
+			checkProduct(product);
+			product.getLock().readLock().lock();
+			try {
+				Task task = product.getTaskById(id);
+				if (task != null) {
+					synchronized (task) {
+						// Every update holds the task's monitor, so nobody else has it claimed
+						task.beginUpdate(task.getVersion());
+						applyCommand(product, task, c);
+					}
+				}
+			} finally {
+				product.getLock().readLock().unlock();
+			}
+		} finally {
+			productsLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Executes a command on a task with the given ID in a product, if the task is
+	 * still at the expected version.
+	 *
+	 * @param product         The product.
+	 * @param id              The ID of the task to update.
+	 * @param expectedVersion The task version the caller last saw.
+	 * @param c               The command to execute on the task.
+	 * @throws TaskConflictException    If the task has changed since that
+	 *                                  version.
+	 * @throws IllegalArgumentException If the product isn't in the backlog, or
+	 *                                  there is no task with that ID.
+	 */
+	void executeCommand(Product product, int id, int expectedVersion, Command c) {
+		productsLock.readLock().lock();
+		try {
+			checkProduct(product);
+			product.getLock().readLock().lock();
+			try {
+				Task task = product.getTaskById(id);
+				if (task == null) {
+					throw new IllegalArgumentException("Task not available.");
+				}
+				synchronized (task) {
+					task.beginUpdate(expectedVersion);
+					applyCommand(product, task, c);
+				}
+			} finally {
+				product.getLock().readLock().unlock();
+			}
+		} finally {
+			productsLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Runs a batch of commands on tasks in the current product, in order. Every
+	 * command is checked before any of them runs, so an all or nothing batch
+	 * either runs completely or leaves the product as it was.
+	 *
+	 * @param batch The commands to run.
+	 * @param mode  What to do with the rest of the batch if a command isn't
+	 *              allowed.
+	 * @return What happened to each command, in the batch's order.
+	 * @throws IllegalArgumentException If no product is selected.
+	 */
+	public List<CommandResult> executeCommands(CommandBatch batch, Mode mode) {
+		return defaultSession.executeCommands(batch, mode);
+	}
+
+	/**
+	 * Runs a batch of commands on tasks in a product, in order. The product is
+	 * held for writing while the batch runs. Each command is first checked
+	 * against the state its task will be in by then, and since a command that
+	 * passes the state table can't fail, the batch is run in one pass with
+	 * nothing to undo. The commands that ran are journaled as one record.
+	 *
+	 * @param product The product, or null if none is selected.
+	 * @param batch   The commands to run.
+	 * @param mode    What to do with the rest of the batch if a command isn't
+	 *                allowed.
+	 * @return What happened to each command, in the batch's order.
+	 * @throws IllegalArgumentException If no product is selected, the product
+	 *                                  isn't in the backlog, or the batch or
+	 *                                  mode is null.
+	 */
+	List<CommandResult> executeCommands(Product product, CommandBatch batch, Mode mode) {
+		if (product == null) {
+			throw new IllegalArgumentException("No product selected.");
+		} else if (batch == null || mode == null) {
+			throw new IllegalArgumentException("Invalid batch.");
+		}
+
+		int size = batch.size();
+		ArrayList<CommandResult> results = new ArrayList<CommandResult>(size);
+
+		productsLock.readLock().lock();
+		try {
+			checkProduct(product);
+			product.getLock().writeLock().lock();
+			try {
+				Task[] tasks = new Task[size];
+				String[] errors = new String[size];
+				boolean allowed = true;
+
+				// The state each task will be in once the commands before it have run
+				IdentityHashMap<Task, State> states = new IdentityHashMap<Task, State>();
+				for (int i = 0; i < size; i++) {
+					Task task = product.getTaskById(batch.getTaskId(i));
+					if (task == null) {
+						errors[i] = "Task not available.";
+					} else {
+						State from = states.get(task);
+						State next = Task.getNextState(from == null ? task.getState() : from,
+								batch.getCommand(i).getCommand());
+						if (next == null) {
+							errors[i] = "Illegal state change";
+						} else {
+							tasks[i] = task;
+							states.put(task, next);
+						}
+					}
+					allowed = allowed && errors[i] == null;
+				}
+
+				boolean run = allowed || mode == Mode.BEST_EFFORT;
+				for (int i = 0; i < size; i++) {
+					if (errors[i] != null) {
+						results.add(new CommandResult(batch.getTaskId(i), Status.FAILED, errors[i], -1));
+					} else if (!run) {
+						results.add(new CommandResult(batch.getTaskId(i), Status.SKIPPED, null, -1));
+					} else {
+						tasks[i].beginUpdate(tasks[i].getVersion());
+						boolean updated = false;
+						try {
+							tasks[i].update(batch.getCommand(i));
+							updated = true;
+						} finally {
+							tasks[i].endUpdate(updated);
+						}
+						results.add(new CommandResult(batch.getTaskId(i), Status.APPLIED, null, tasks[i].getVersion()));
+					}
+				}
+
+				if (run) {
+					ArrayList<Integer> ids = new ArrayList<Integer>(size);
+					ArrayList<Command> commands = new ArrayList<Command>(size);
+					for (int i = 0; i < size; i++) {
+						if (tasks[i] != null) {
+							ids.add(batch.getTaskId(i));
+							commands.add(batch.getCommand(i));
+						}
+					}
+
+					CommandJournal current = journal;
+					if (current != null && ids.size() > 0) {
+						try {
+							current.commandsExecuted(product.getProductName(), ids, commands);
+							journalWritten(current, null);
+						} catch (IllegalArgumentException e) {
+							journalWritten(current, e);
+						}
+					}
+				}
+			} finally {
+				product.getLock().writeLock().unlock();
+			}
+		} finally {
+			productsLock.readLock().unlock();
+		}
+
+		return results;
+	}
+
+	/**
+	 * Checks a session's product is still in the backlog, since another client
+	 * may have deleted it or cleared the products. Changes to a product that's
+	 * gone would be lost, and journaling them by name could change another
+	 * product that later takes the name. The caller holds the products lock.
+	 *
+	 * @param product The product, or null if none is selected.
+	 * @throws IllegalArgumentException If the product isn't in the backlog.
+	 */
+	private void checkProduct(Product product) {
+		for (int i = 0; i < products.size(); i++) {
+			if (products.get(i) == product) {
+				return;
+			}
+		}
+		throw new IllegalArgumentException("No product selected.");
+	}
+
+	/**
+	 * Applies a command to a task the caller has claimed with beginUpdate, then
+	 * journals it before releasing the task, so updates to one task are journaled
+	 * in the order they were made. The caller holds the product's read lock and
+	 * the task's monitor.
+	 *
+	 * @param product The product the task is in.
+	 * @param task    The task.
+	 * @param c       The command to execute on the task.
+	 */
+	private void applyCommand(Product product, Task task, Command c) {
+		boolean updated = false;
+		try {
+			task.update(c);
+			updated = true;
+			CommandJournal current = journal;
+			if (current != null) {
+				try {
+					current.commandExecuted(product.getProductName(), task.getTaskId(), c);
+					journalWritten(current, null);
+				} catch (IllegalArgumentException e) {
+					journalWritten(current, e);
+				}
+			}
+		} finally {
+			task.endUpdate(updated);
+		}
 	}
 
 	/**
@@ -156,7 +932,38 @@ public class BacklogManager {
 	 * @param id The ID of the task to delete.
 	 */
 	public void deleteTaskById(int id) {
-		currentProduct.deleteTaskById(id);
+		defaultSession.deleteTaskById(id);
+	}
+
+	/**
+	 * Deletes a task with the given ID from a product.
+	 *
+	 * @param product The product.
+	 * @param id      The ID of the task to delete.
+	 * @throws IllegalArgumentException If the product isn't in the backlog.
+	 */
+	void deleteTaskById(Product product, int id) {
+		productsLock.readLock().lock();
+		try {
+			checkProduct(product);
+			product.getLock().writeLock().lock();
+			try {
+				product.deleteTaskById(id);
+				CommandJournal current = journal;
+				if (current != null) {
+					try {
+						current.taskDeleted(product.getProductName(), id);
+						journalWritten(current, null);
+					} catch (IllegalArgumentException e) {
+						journalWritten(current, e);
+					}
+				}
+			} finally {
+				product.getLock().writeLock().unlock();
+			}
+		} finally {
+			productsLock.readLock().unlock();
+		}
 	}
 
 	/**
@@ -166,9 +973,46 @@ public class BacklogManager {
 	 * @param type    The type of the task.
 	 * @param creator The creator of the task.
 	 * @param note    Additional notes for the task.
+	 * @return The ID of the new task.
 	 */
-	public void addTaskToProduct(String title, Type type, String creator, String note) {
-		currentProduct.addTask(title, type, creator, note);
+	public int addTaskToProduct(String title, Type type, String creator, String note) {
+		return defaultSession.addTaskToProduct(title, type, creator, note);
+	}
+
+	/**
+	 * Adds a new task to a product.
+	 *
+	 * @param product The product.
+	 * @param title   The title of the task.
+	 * @param type    The type of the task.
+	 * @param creator The creator of the task.
+	 * @param note    Additional notes for the task.
+	 * @return The ID of the new task.
+	 * @throws IllegalArgumentException If the product isn't in the backlog.
+	 */
+	int addTaskToProduct(Product product, String title, Type type, String creator, String note) {
+		productsLock.readLock().lock();
+		try {
+			checkProduct(product);
+			product.getLock().writeLock().lock();
+			try {
+				int id = product.addTask(title, type, creator, note).getTaskId();
+				CommandJournal current = journal;
+				if (current != null) {
+					try {
+						current.taskAdded(product.getProductName(), title, type, creator, note);
+						journalWritten(current, null);
+					} catch (IllegalArgumentException e) {
+						journalWritten(current, e);
+					}
+				}
+				return id;
+			} finally {
+				product.getLock().writeLock().unlock();
+			}
+		} finally {
+			productsLock.readLock().unlock();
+		}
 	}
 
 	/**
@@ -177,11 +1021,22 @@ public class BacklogManager {
 	 * @return The name of the current product.
 	 */
 	public String getProductName() {
-		if (currentProduct == null) {
-			return null;
-		}
+		return defaultSession.getProductName();
+	}
 
-		return currentProduct.getProductName();
+	/**
+	 * Retrieves the name of a product.
+	 *
+	 * @param product The product.
+	 * @return The name of the product.
+	 */
+	String getProductName(Product product) {
+		productsLock.readLock().lock();
+		try {
+			return product.getProductName();
+		} finally {
+			productsLock.readLock().unlock();
+		}
 	}
 
 	/**
@@ -191,24 +1046,35 @@ public class BacklogManager {
 	 * @return An array of product names.
 	 */
 	public String[] getProductList() {
-		if(products == null) {
-			return null;
-		}
-		
-		String[] productList = new String[products.size()];
+		productsLock.readLock().lock();
+		try {
+			String[] productList = new String[products.size()];
 
-		for (int i = 0; i < products.size(); i++) {
-			productList[i] = products.get(i).getProductName();
-		}
+			for (int i = 0; i < products.size(); i++) {
+				productList[i] = products.get(i).getProductName();
+			}
 
-		return productList;
+			return productList;
+		} finally {
+			productsLock.readLock().unlock();
+		}
 	}
 
 	/**
-	 * Resets the list of products and sets the current product to null.
+	 * Resets the list of products and sets the current product to null. The
+	 * products no longer match the file they came from, so the journal is
+	 * closed.
 	 */
 	public void clearProducts() {
-		products.clear();
+		productsLock.writeLock().lock();
+		try {
+			synchronized (saveLock) {
+				closeJournal();
+			}
+			products.clear();
+		} finally {
+			productsLock.writeLock().unlock();
+		}
 	}
 
 	/**
@@ -219,37 +1085,94 @@ public class BacklogManager {
 	 *                                  empty string, or if no product is selected.
 	 */
 	public void editProduct(String updateName) {
+		defaultSession.editProduct(updateName);
+	}
+
+	/**
+	 * Updates the name of a product to the given value, unless the name is empty
+	 * or another product already has it.
+	 *
+	 * @param product    The product, or null if none is selected.
+	 * @param updateName The new name for the product.
+	 * @throws IllegalArgumentException If no product is selected, or the product
+	 *                                  was deleted.
+	 */
+	void editProduct(Product product, String updateName) {
 
 		boolean productExists = false;
-		if (currentProduct == null) {
+		if (product == null) {
 			throw new IllegalArgumentException("No product selected.”");
 		} else if (updateName != null && !("".equals(updateName))) {
-			for (int i = 0; i < products.size(); i++) {
-				if (products.get(i).getProductName().equals(updateName)) {
-					productExists = true;
+			productsLock.writeLock().lock();
+			try {
+				checkProduct(product);
+				for (int i = 0; i < products.size(); i++) {
+					if (products.get(i).getProductName().equals(updateName)) {
+						productExists = true;
+					}
 				}
-			}
 
-			if (!productExists) {
-				currentProduct.setProductName(updateName);
+				if (!productExists) {
+					String oldName = product.getProductName();
+					product.setProductName(updateName);
+					CommandJournal current = journal;
+					if (current != null) {
+						try {
+							current.productRenamed(oldName, product.getProductName());
+							journalWritten(current, null);
+						} catch (IllegalArgumentException e) {
+							journalWritten(current, e);
+						}
+					}
+				}
+			} finally {
+				productsLock.writeLock().unlock();
 			}
 		}
 	}
 
 	/**
-	 * Adds a new product to the backlog
-	 * 
+	 * Adds a new product to the backlog and makes it the current product
+	 *
 	 * @param productName is the name of the product
 	 */
 	public void addProduct(String productName) {
-		for(int i = 0; i < products.size(); i++) {
-			if(products.get(i).getProductName().toLowerCase().equals(productName.trim().toLowerCase())) {
-				throw new IllegalArgumentException("Invalid product name.");
+		defaultSession.addProduct(productName);
+	}
+
+	/**
+	 * Adds a new product to the backlog and makes it a session's current
+	 * product. The session is updated before the product is journaled, so it
+	 * has the product even if the journal can't be written.
+	 *
+	 * @param session     is the session to make the product current in
+	 * @param productName is the name of the product
+	 * @throws IllegalArgumentException If a product already has that name.
+	 */
+	void createProduct(BacklogSession session, String productName) {
+		productsLock.writeLock().lock();
+		try {
+			for(int i = 0; i < products.size(); i++) {
+				if(products.get(i).getProductName().toLowerCase().equals(productName.trim().toLowerCase())) {
+					throw new IllegalArgumentException("Invalid product name.");
+				}
+			}
+
+			Product product = new Product(productName.trim());
+			this.products.add(product);
+			session.setCurrentProduct(product);
+			CommandJournal current = journal;
+			if (current != null) {
+				try {
+					current.productAdded(productName.trim());
+					journalWritten(current, null);
+				} catch (IllegalArgumentException e) {
+					journalWritten(current, e);
+				}
 			}
+		} finally {
+			productsLock.writeLock().unlock();
 		}
-		
-		this.products.add(new Product(productName.trim()));
-		loadProduct(productName.trim());
 	}
 
 	/**
@@ -259,12 +1182,38 @@ public class BacklogManager {
 	 * @throws IllegalArgumentException If no product is selected.
 	 */
 	public void deleteProduct() {
-		
-		if(currentProduct == null) {
+		defaultSession.deleteProduct();
+	}
+
+	/**
+	 * Deletes a product from the backlog.
+	 *
+	 * @param product The product, or null if none is selected.
+	 * @throws IllegalArgumentException If no product is selected, or the product
+	 *                                  was already deleted.
+	 */
+	void deleteProduct(Product product) {
+
+		if(product == null) {
 			throw new IllegalArgumentException("No product selected.");
 		}
-		
-		products.remove(currentProduct);
+
+		productsLock.writeLock().lock();
+		try {
+			checkProduct(product);
+			products.remove(product);
+			CommandJournal current = journal;
+			if (current != null) {
+				try {
+					current.productDeleted(product.getProductName());
+					journalWritten(current, null);
+				} catch (IllegalArgumentException e) {
+					journalWritten(current, e);
+				}
+			}
+		} finally {
+			productsLock.writeLock().unlock();
+		}
 	}
 
 	/**
@@ -272,6 +1221,12 @@ public class BacklogManager {
 	 * method is intended for testing the BacklogManager class.
 	 */
 	protected void resetManager() {
-		singleton = null;
+		saveExecutor.shutdown();
+		synchronized (saveLock) {
+			closeJournal();
+		}
+		synchronized (BacklogManager.class) {
+			singleton = null;
+		}
 	}
 }
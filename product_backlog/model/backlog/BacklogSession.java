@@ -0,0 +1,206 @@
+package edu.ncsu.csc216.product_backlog.model.backlog;
+
+import java.util.List;
+
+import edu.ncsu.csc216.product_backlog.model.command.Command;
+import edu.ncsu.csc216.product_backlog.model.command.CommandBatch;
+import edu.ncsu.csc216.product_backlog.model.command.CommandBatch.Mode;
+import edu.ncsu.csc216.product_backlog.model.command.CommandResult;
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.task.TaskConflictException;
+import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
+
+/**
+ * One client's view of the BacklogManager. Each session has its own current
+ * product, so several clients can work on different products at the same
+ * time. A session is meant to be used by one thread at a time, while the
+ * manager behind it can be shared.
+ */
+public class BacklogSession {
+
+	/**
+	 * This is the manager the session works through
+	 */
+	private final BacklogManager manager;
+
+	/**
+	 * This is the product the session is working with
+	 */
+	private Product currentProduct;
+
+	/**
+	 * Creates a session with no current product
+	 *
+	 * @param manager The manager the session works through.
+	 */
+	BacklogSession(BacklogManager manager) {
+		this.manager = manager;
+	}
+
+	/**
+	 * Retrieves the session's current product.
+	 *
+	 * @return The current product, or null if there isn't one.
+	 */
+	Product getCurrentProduct() {
+		return currentProduct;
+	}
+
+	/**
+	 * Sets the session's current product.
+	 *
+	 * @param product The new current product.
+	 */
+	void setCurrentProduct(Product product) {
+		this.currentProduct = product;
+	}
+
+	/**
+	 * Loads the product with the given name as the current product.
+	 *
+	 * @param productName The name of the product to load.
+	 * @throws IllegalArgumentException If the requested product is not available.
+	 */
+	public void loadProduct(String productName) {
+		currentProduct = manager.findProduct(productName);
+	}
+
+	/**
+	 * Saves all of the products to a file with the given file name. The file is
+	 * written in the background, so use BacklogManager.flushSaves to wait for it.
+	 *
+	 * @param fileName The name of the file to save to.
+	 * @throws IllegalArgumentException if the current product has no tasks to
+	 *                                  save
+	 */
+	public void saveToFile(String fileName) {
+		manager.saveToFile(currentProduct, fileName);
+	}
+
+	/**
+	 * Retrieves the name of the current product.
+	 *
+	 * @return The name of the current product, or null if there isn't one.
+	 */
+	public String getProductName() {
+		if (currentProduct == null) {
+			return null;
+		}
+
+		return manager.getProductName(currentProduct);
+	}
+
+	/**
+	 * Retrieves the tasks in the current product as a 2D string array.
+	 *
+	 * @return A 2D string array containing task information, or null if there
+	 *         isn't a current product.
+	 */
+	public String[][] getTasksAsArray() {
+		return manager.getTasksAsArray(currentProduct);
+	}
+
+	/**
+	 * Retrieves a copy of a task from the current product by its ID. The copy
+	 * is always one whole version of the task, and later changes don't show in
+	 * it.
+	 *
+	 * @param id The ID of the task to retrieve.
+	 * @return A copy of the task with the given ID, or null if no task with that
+	 *         ID exists in the current product.
+	 */
+	public Task getTaskById(int id) {
+		return manager.getTaskById(currentProduct, id);
+	}
+
+	/**
+	 * Executes a command on a task with the given ID in the current product.
+	 *
+	 * @param id The ID of the task to update.
+	 * @param c  The command to execute on the task.
+	 */
+	public void executeCommand(int id, Command c) {
+		manager.executeCommand(currentProduct, id, c);
+	}
+
+	/**
+	 * Executes a command on a task with the given ID in the current product, if
+	 * the task is still at the expected version.
+	 *
+	 * @param id              The ID of the task to update.
+	 * @param expectedVersion The task version the caller last saw.
+	 * @param c               The command to execute on the task.
+	 * @throws TaskConflictException    If the task has changed since that
+	 *                                  version.
+	 * @throws IllegalArgumentException If there is no task with that ID.
+	 */
+	public void executeCommand(int id, int expectedVersion, Command c) {
+		manager.executeCommand(currentProduct, id, expectedVersion, c);
+	}
+
+	/**
+	 * Runs a batch of commands on tasks in the current product, in order. Every
+	 * command is checked before any of them runs.
+	 *
+	 * @param batch The commands to run.
+	 * @param mode  What to do with the rest of the batch if a command isn't
+	 *              allowed.
+	 * @return What happened to each command, in the batch's order.
+	 * @throws IllegalArgumentException If no product is selected.
+	 */
+	public List<CommandResult> executeCommands(CommandBatch batch, Mode mode) {
+		return manager.executeCommands(currentProduct, batch, mode);
+	}
+
+	/**
+	 * Deletes a task with the given ID from the current product.
+	 *
+	 * @param id The ID of the task to delete.
+	 */
+	public void deleteTaskById(int id) {
+		manager.deleteTaskById(currentProduct, id);
+	}
+
+	/**
+	 * Adds a new task to the current product.
+	 *
+	 * @param title   The title of the task.
+	 * @param type    The type of the task.
+	 * @param creator The creator of the task.
+	 * @param note    Additional notes for the task.
+	 * @return The ID of the new task.
+	 */
+	public int addTaskToProduct(String title, Type type, String creator, String note) {
+		return manager.addTaskToProduct(currentProduct, title, type, creator, note);
+	}
+
+	/**
+	 * Updates the name of the current product to the given value.
+	 *
+	 * @param updateName The new name for the current product.
+	 * @throws IllegalArgumentException If no product is selected.
+	 */
+	public void editProduct(String updateName) {
+		manager.editProduct(currentProduct, updateName);
+	}
+
+	/**
+	 * Adds a new product to the backlog and makes it the current product.
+	 *
+	 * @param productName is the name of the product
+	 * @throws IllegalArgumentException If a product already has that name.
+	 */
+	public void addProduct(String productName) {
+		manager.createProduct(this, productName);
+	}
+
+	/**
+	 * Deletes the current product.
+	 *
+	 * @throws IllegalArgumentException If no product is selected.
+	 */
+	public void deleteProduct() {
+		manager.deleteProduct(currentProduct);
+	}
+}
@@ -0,0 +1,20 @@
+package edu.ncsu.csc216.product_backlog.model.backlog;
+
+/**
+ * Thrown when a change was made in memory but couldn't be written to the
+ * journal, so it will be lost if the program stops before the products are
+ * saved again. The journal is closed when this happens, so later changes
+ * aren't journaled either until the next save.
+ */
+public class UnsavedChangeException extends IllegalStateException {
+
+	/** ID used for serialization */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates the exception for a change that couldn't be journaled
+	 */
+	public UnsavedChangeException() {
+		super("The change was made but couldn't be saved to disk. Save the products to keep it.");
+	}
+}
@@ -0,0 +1,76 @@
+package edu.ncsu.csc216.product_backlog.model.command;
+
+import java.util.ArrayList;
+
+/**
+ * This class holds a list of commands to run on tasks in one product, in the
+ * order they should run. A task can appear more than once, and each command is
+ * checked against the state the earlier ones leave it in.
+ */
+public class CommandBatch {
+
+	/**
+	 * This is an enumeration of the ways a batch can handle commands that aren't
+	 * allowed
+	 */
+	public enum Mode {
+		/**
+		 * If any command isn't allowed, none of them are run
+		 */
+		ALL_OR_NOTHING,
+		/**
+		 * Commands that aren't allowed are skipped and the rest are run
+		 */
+		BEST_EFFORT
+	}
+
+	/** The IDs of the tasks to run the commands on */
+	private ArrayList<Integer> taskIds = new ArrayList<Integer>();
+
+	/** The commands, in the same order as the task IDs */
+	private ArrayList<Command> commands = new ArrayList<Command>();
+
+	/**
+	 * Adds a command to the end of the batch
+	 *
+	 * @param taskId is the ID of the task to run the command on
+	 * @param c      is the command
+	 * @throws IllegalArgumentException if the command is null
+	 */
+	public void add(int taskId, Command c) {
+		if (c == null) {
+			throw new IllegalArgumentException("Command can't be null");
+		}
+		taskIds.add(taskId);
+		commands.add(c);
+	}
+
+	/**
+	 * Returns the number of commands in the batch
+	 *
+	 * @return the number of commands
+	 */
+	public int size() {
+		return commands.size();
+	}
+
+	/**
+	 * Returns the ID of the task a command runs on
+	 *
+	 * @param index is the command's position in the batch
+	 * @return the task's ID
+	 */
+	public int getTaskId(int index) {
+		return taskIds.get(index);
+	}
+
+	/**
+	 * Returns a command in the batch
+	 *
+	 * @param index is the command's position in the batch
+	 * @return the command
+	 */
+	public Command getCommand(int index) {
+		return commands.get(index);
+	}
+}
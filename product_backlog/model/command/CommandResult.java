@@ -0,0 +1,90 @@
+package edu.ncsu.csc216.product_backlog.model.command;
+
+/**
+ * This class reports what happened to one command in a CommandBatch
+ */
+public class CommandResult {
+
+	/**
+	 * This is an enumeration of what can happen to a command in a batch
+	 */
+	public enum Status {
+		/**
+		 * The command was run
+		 */
+		APPLIED,
+		/**
+		 * The command wasn't allowed, or its task doesn't exist
+		 */
+		FAILED,
+		/**
+		 * The command was allowed, but wasn't run because another command in an
+		 * all or nothing batch failed
+		 */
+		SKIPPED
+	}
+
+	/** The ID of the task the command was for */
+	private int taskId;
+
+	/** What happened to the command */
+	private Status status;
+
+	/** Why the command failed, or null if it didn't */
+	private String message;
+
+	/** The task's version after the command ran, or -1 if it didn't run */
+	private int version;
+
+	/**
+	 * This is the constructor for the CommandResult class
+	 *
+	 * @param taskId  is the ID of the task the command was for
+	 * @param status  is what happened to the command
+	 * @param message is why the command failed, or null if it didn't
+	 * @param version is the task's version after the command ran, or -1 if it
+	 *                didn't run
+	 */
+	public CommandResult(int taskId, Status status, String message, int version) {
+		this.taskId = taskId;
+		this.status = status;
+		this.message = message;
+		this.version = version;
+	}
+
+	/**
+	 * Retrieves the ID of the task the command was for
+	 *
+	 * @return the task's ID
+	 */
+	public int getTaskId() {
+		return taskId;
+	}
+
+	/**
+	 * Retrieves what happened to the command
+	 *
+	 * @return the status
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * Retrieves why the command failed
+	 *
+	 * @return the reason, or null if it didn't fail
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * Retrieves the task's version after the command ran
+	 *
+	 * @return the version, or -1 if the command didn't run
+	 */
+	public int getVersion() {
+		return version;
+	}
+}
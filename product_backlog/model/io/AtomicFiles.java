@@ -0,0 +1,78 @@
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Replaces files without a crash ever leaving them half written. A new version
+ * of a file is written to a temporary file next to it, synced to disk by the
+ * caller, and then renamed over the old version.
+ */
+class AtomicFiles {
+
+	/**
+	 * Returns the temporary file to write a new version of the target to
+	 * 
+	 * @param target is the file being replaced
+	 * @return the temporary file in the same directory
+	 */
+	static Path tempFile(Path target) {
+		return target.resolveSibling(target.getFileName() + ".tmp");
+	}
+
+	/**
+	 * Renames a finished temporary file over the target, keeping the target's
+	 * permissions if it exists. The rename is atomic wherever the file system
+	 * supports it.
+	 * 
+	 * @param tempFile is the new version of the file, already synced to disk
+	 * @param target   is the file being replaced
+	 * @throws IOException if the file can't be renamed
+	 */
+	static void replace(Path tempFile, Path target) throws IOException {
+		copyPermissions(target, tempFile);
+		try {
+			Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Deletes a leftover temporary file, ignoring any errors
+	 * 
+	 * @param file is the file to delete, or null if there isn't one
+	 */
+	static void deleteQuietly(Path file) {
+		if (file == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			// Nothing else can be done with it
+		}
+	}
+
+	/**
+	 * Gives the temporary file the same permissions as the file it replaces, if
+	 * that file exists and the file system supports it
+	 * 
+	 * @param target   is the file being replaced
+	 * @param tempFile is the file replacing it
+	 */
+	private static void copyPermissions(Path target, Path tempFile) {
+		try {
+			if (Files.exists(target)) {
+				Files.setPosixFilePermissions(tempFile, Files.getPosixFilePermissions(target));
+			}
+		} catch (UnsupportedOperationException e) {
+			// Not a POSIX file system, so the defaults are kept
+		} catch (IOException e) {
+			// The defaults are kept
+		}
+	}
+}
@@ -0,0 +1,707 @@
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import edu.ncsu.csc216.product_backlog.model.command.Command;
+import edu.ncsu.csc216.product_backlog.model.command.Command.CommandValue;
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
+
+/**
+ * This is an append only journal of the changes made to the products since
+ * they were last saved to a products file. The journal for a file is kept next
+ * to it with ".journal" added to the name.
+ *
+ * The journal starts with a header naming the exact products file it applies
+ * to, so a journal left over from an older save is never replayed on top of a
+ * newer one. Each change after the header is one record: its length, a CRC32
+ * of its bytes, then the bytes. A record cut off by a crash fails its check,
+ * and it and anything after it are dropped.
+ *
+ * Several threads can append at once. Records are written one at a time, then
+ * each thread waits until its record is forced to disk. One force covers every
+ * record written before it started, so threads that arrive while a force is
+ * running share the next one instead of each forcing in turn.
+ */
+public class CommandJournal {
+
+	/** Added to a products file name to get its journal's name */
+	private static final String JOURNAL_SUFFIX = ".journal";
+	/** First four bytes of a journal file */
+	private static final int MAGIC = 0x504A524E;
+	/** Version of the journal format */
+	private static final byte VERSION = 1;
+	/** Longest record that will be read back, to guard against garbage lengths */
+	private static final int MAX_RECORD_LENGTH = 64 * 1024 * 1024;
+
+	/** Record for a task added to a product */
+	private static final byte ADD_TASK = 1;
+	/** Record for a command run on a task */
+	private static final byte EXECUTE_COMMAND = 2;
+	/** Record for a task deleted from a product */
+	private static final byte DELETE_TASK = 3;
+	/** Record for a new product */
+	private static final byte ADD_PRODUCT = 4;
+	/** Record for a renamed product */
+	private static final byte RENAME_PRODUCT = 5;
+	/** Record for a deleted product */
+	private static final byte DELETE_PRODUCT = 6;
+	/** Record for a batch of commands run on tasks in one product */
+	private static final byte EXECUTE_COMMANDS = 7;
+
+	/** The journal file */
+	private final Path file;
+	/** The open journal file, positioned at its end */
+	private final FileChannel channel;
+	/** Number of changes in the journal, counting each command in a batch */
+	private int recordCount;
+	/** Where the last record written ends, guarded by the journal's lock */
+	private long writtenPosition;
+	/** Held while forcing the journal to disk, and guards forcedPosition */
+	private final Object forceLock = new Object();
+	/** Where the records known to be on disk end */
+	private long forcedPosition;
+
+	/**
+	 * Opens a journal that's ready to append to
+	 *
+	 * @param file        is the journal file
+	 * @param channel     is the open journal file, positioned at its end
+	 * @param recordCount is the number of changes already in it
+	 */
+	private CommandJournal(Path file, FileChannel channel, int recordCount) throws IOException {
+		this.file = file;
+		this.channel = channel;
+		this.recordCount = recordCount;
+		this.writtenPosition = channel.position();
+		this.forcedPosition = writtenPosition;
+	}
+
+	/**
+	 * Replays the journal for a products file onto the products just read from
+	 * it. Records that can't be applied are skipped. If the journal is wanted for
+	 * more changes, it's then opened to append to, and if there's no journal, or
+	 * it belongs to an older version of the file, a new empty one is started.
+	 * Otherwise the journal file is left as it is.
+	 *
+	 * @param fileName is the name of the products file
+	 * @param products are the products read from the file
+	 * @param append   is true if the journal should be opened to append to
+	 * @return the journal, ready to append to, or null if it wasn't wanted or
+	 *         can't be written, such as in a read only directory
+	 * @throws IllegalArgumentException if the journal can't be read
+	 */
+	public static CommandJournal load(String fileName, ArrayList<Product> products, boolean append)
+			throws IllegalArgumentException {
+		Path snapshot = Paths.get(fileName).toAbsolutePath();
+		Path file = journalPath(snapshot);
+		long validLength = -1;
+		int count = 0;
+		try {
+			if (Files.exists(file)) {
+				String fingerprint = fingerprint(snapshot);
+				InputStream stream = new BufferedInputStream(Files.newInputStream(file));
+				DataInputStream in = new DataInputStream(stream);
+				try {
+					if (in.readInt() == MAGIC && in.readByte() == VERSION && fingerprint.equals(readString(in))) {
+						validLength = 4 + 1 + 4 + fingerprint.getBytes(StandardCharsets.UTF_8).length;
+
+						CRC32 check = new CRC32();
+						byte[] body;
+						while ((body = readRecord(in, check)) != null) {
+							count += applyRecord(body, products);
+							validLength += 8 + body.length;
+						}
+					}
+				} catch (EOFException e) {
+					// The header itself was cut off
+					validLength = -1;
+				} finally {
+					in.close();
+				}
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+
+		if (!append) {
+			return null;
+		}
+		try {
+			if (validLength < 0) {
+				return start(snapshot, file);
+			}
+
+			FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			channel.truncate(validLength);
+			channel.position(validLength);
+			return new CommandJournal(file, channel, count);
+		} catch (IOException e) {
+			// The journal can't be written, so changes are only saved with the file
+			return null;
+		}
+	}
+
+	/**
+	 * Starts a new empty journal for a products file that was just saved,
+	 * replacing any journal it had
+	 *
+	 * @param fileName is the name of the products file
+	 * @return the journal, ready to append to
+	 * @throws IllegalArgumentException if the journal can't be written
+	 */
+	public static CommandJournal create(String fileName) throws IllegalArgumentException {
+		try {
+			Path snapshot = Paths.get(fileName).toAbsolutePath();
+			return start(snapshot, journalPath(snapshot));
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Records a task added with Product.addTask
+	 *
+	 * @param productName is the name of the product
+	 * @param title       is the title of the task
+	 * @param type        is the type of the task
+	 * @param creator     is the creator of the task
+	 * @param note        is the task's first note
+	 * @throws IllegalArgumentException if the record can't be written
+	 */
+	public void taskAdded(String productName, String title, Type type, String creator, String note)
+			throws IllegalArgumentException {
+		try {
+			ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+			DataOutputStream record = new DataOutputStream(recordBytes);
+			record.writeByte(ADD_TASK);
+			writeString(record, productName);
+			writeString(record, title);
+			record.writeByte(type.ordinal());
+			writeString(record, creator);
+			writeString(record, note);
+			append(recordBytes, 1);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Records a command run with Product.executeCommand
+	 *
+	 * @param productName is the name of the product
+	 * @param id          is the id of the task
+	 * @param c           is the command
+	 * @throws IllegalArgumentException if the record can't be written
+	 */
+	public void commandExecuted(String productName, int id, Command c) throws IllegalArgumentException {
+		try {
+			ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+			DataOutputStream record = new DataOutputStream(recordBytes);
+			record.writeByte(EXECUTE_COMMAND);
+			writeString(record, productName);
+			record.writeInt(id);
+			record.writeByte(c.getCommand().ordinal());
+			writeString(record, c.getOwner());
+			writeString(record, c.getNoteText());
+			append(recordBytes, 1);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Records a batch of commands run on tasks in one product, in order. The
+	 * batch is one record, so it's forced to disk once and is replayed either
+	 * completely or not at all.
+	 *
+	 * @param productName is the name of the product
+	 * @param ids         are the ids of the tasks
+	 * @param commands    are the commands, in the same order as the ids
+	 * @throws IllegalArgumentException if the record can't be written
+	 */
+	public void commandsExecuted(String productName, List<Integer> ids, List<Command> commands)
+			throws IllegalArgumentException {
+		try {
+			ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+			DataOutputStream record = new DataOutputStream(recordBytes);
+			record.writeByte(EXECUTE_COMMANDS);
+			writeString(record, productName);
+			record.writeInt(ids.size());
+			for (int i = 0; i < ids.size(); i++) {
+				Command c = commands.get(i);
+				record.writeInt(ids.get(i));
+				record.writeByte(c.getCommand().ordinal());
+				writeString(record, c.getOwner());
+				writeString(record, c.getNoteText());
+			}
+			append(recordBytes, ids.size());
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Records a task deleted with Product.deleteTaskById
+	 *
+	 * @param productName is the name of the product
+	 * @param id          is the id of the task
+	 * @throws IllegalArgumentException if the record can't be written
+	 */
+	public void taskDeleted(String productName, int id) throws IllegalArgumentException {
+		try {
+			ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+			DataOutputStream record = new DataOutputStream(recordBytes);
+			record.writeByte(DELETE_TASK);
+			writeString(record, productName);
+			record.writeInt(id);
+			append(recordBytes, 1);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Records a new product added to the end of the products
+	 *
+	 * @param productName is the name of the product
+	 * @throws IllegalArgumentException if the record can't be written
+	 */
+	public void productAdded(String productName) throws IllegalArgumentException {
+		try {
+			ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+			DataOutputStream record = new DataOutputStream(recordBytes);
+			record.writeByte(ADD_PRODUCT);
+			writeString(record, productName);
+			append(recordBytes, 1);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Records a product being renamed
+	 *
+	 * @param productName is the old name of the product
+	 * @param newName     is the new name of the product
+	 * @throws IllegalArgumentException if the record can't be written
+	 */
+	public void productRenamed(String productName, String newName) throws IllegalArgumentException {
+		try {
+			ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+			DataOutputStream record = new DataOutputStream(recordBytes);
+			record.writeByte(RENAME_PRODUCT);
+			writeString(record, productName);
+			writeString(record, newName);
+			append(recordBytes, 1);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Records a product being deleted
+	 *
+	 * @param productName is the name of the product
+	 * @throws IllegalArgumentException if the record can't be written
+	 */
+	public void productDeleted(String productName) throws IllegalArgumentException {
+		try {
+			ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+			DataOutputStream record = new DataOutputStream(recordBytes);
+			record.writeByte(DELETE_PRODUCT);
+			writeString(record, productName);
+			append(recordBytes, 1);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Returns the number of changes in the journal, counting each command in a
+	 * batch
+	 *
+	 * @return the number of changes
+	 */
+	public synchronized int getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Returns where the records written so far end, so the records written
+	 * after this can be read with readSince
+	 *
+	 * @return the position after the last record
+	 */
+	public synchronized long getPosition() {
+		return writtenPosition;
+	}
+
+	/**
+	 * Reads the records written since a position returned by getPosition, so
+	 * they can be carried over to a new journal with appendRecords
+	 *
+	 * @param position is where the records start
+	 * @return the records, as they are in the file
+	 * @throws IllegalArgumentException if the records can't be read
+	 */
+	public synchronized byte[] readSince(long position) throws IllegalArgumentException {
+		try {
+			ByteBuffer buffer = ByteBuffer.allocate((int) (writtenPosition - position));
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer, position + buffer.position()) < 0) {
+					throw new EOFException();
+				}
+			}
+			return buffer.array();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Appends records read from another journal with readSince and waits for
+	 * them to be forced to disk
+	 *
+	 * @param records are the records
+	 * @param changes is the number of changes in them
+	 * @throws IllegalArgumentException if the records can't be written
+	 */
+	public void appendRecords(byte[] records, int changes) throws IllegalArgumentException {
+		try {
+			write(ByteBuffer.wrap(records), changes);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Closes the journal file. Its records stay on disk for the next load. An
+	 * append that's still running fails.
+	 */
+	public void close() {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			// Every record that was appended was already forced to disk
+		}
+	}
+
+	/**
+	 * Checks if the journal is still open to append to
+	 *
+	 * @return true if it hasn't been closed
+	 */
+	public boolean isOpen() {
+		return channel.isOpen();
+	}
+
+	/**
+	 * Returns the name of the journal file
+	 *
+	 * @return the journal file's name
+	 */
+	public String getFileName() {
+		return file.toString();
+	}
+
+	/**
+	 * Checks if this is the journal for the given products file, so starting a
+	 * new journal for that file would replace this one
+	 *
+	 * @param fileName is the name of the products file
+	 * @return true if this journal goes with the file
+	 */
+	public boolean belongsTo(String fileName) {
+		return file.equals(journalPath(Paths.get(fileName).toAbsolutePath()));
+	}
+
+	/**
+	 * Frames a record, appends it to the journal and waits for it to be forced
+	 * to disk
+	 *
+	 * @param recordBytes holds the record's fields
+	 * @param changes     is the number of changes in the record
+	 * @throws IOException if the record can't be written
+	 */
+	private void append(ByteArrayOutputStream recordBytes, int changes) throws IOException {
+		byte[] body = recordBytes.toByteArray();
+		CRC32 crc = new CRC32();
+		crc.update(body, 0, body.length);
+
+		ByteBuffer buffer = ByteBuffer.allocate(8 + body.length);
+		buffer.putInt(body.length);
+		buffer.putInt((int) crc.getValue());
+		buffer.put(body);
+		buffer.flip();
+		write(buffer, changes);
+	}
+
+	/**
+	 * Appends framed records to the journal and waits for them to be forced to
+	 * disk
+	 *
+	 * @param buffer  holds the records
+	 * @param changes is the number of changes in them
+	 * @throws IOException if the records can't be written
+	 */
+	private void write(ByteBuffer buffer, int changes) throws IOException {
+		long end;
+		synchronized (this) {
+			long length = buffer.remaining();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			writtenPosition += length;
+			end = writtenPosition;
+			recordCount += changes;
+		}
+		force(end);
+	}
+
+	/**
+	 * Waits until the journal is on disk up to the given position. If no other
+	 * thread has forced that far, this forces everything written so far, which
+	 * also covers records other threads are waiting on.
+	 *
+	 * @param end is where the record to wait for ends
+	 * @throws IOException if the journal can't be forced
+	 */
+	private void force(long end) throws IOException {
+		synchronized (forceLock) {
+			if (forcedPosition < end) {
+				long target;
+				synchronized (this) {
+					target = writtenPosition;
+				}
+				channel.force(false);
+				forcedPosition = target;
+			}
+		}
+	}
+
+	/**
+	 * Writes a new empty journal with a header for the given products file, then
+	 * renames it over any journal already there
+	 *
+	 * @param snapshot is the products file
+	 * @param file     is the journal file
+	 * @return the journal, ready to append to
+	 * @throws IOException if the journal can't be written
+	 */
+	private static CommandJournal start(Path snapshot, Path file) throws IOException {
+		ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+		DataOutputStream header = new DataOutputStream(headerBytes);
+		header.writeInt(MAGIC);
+		header.writeByte(VERSION);
+		writeString(header, fingerprint(snapshot));
+		header.flush();
+
+		Path tempFile = AtomicFiles.tempFile(file);
+		FileChannel temp = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(headerBytes.toByteArray());
+			while (buffer.hasRemaining()) {
+				temp.write(buffer);
+			}
+			temp.force(true);
+		} finally {
+			temp.close();
+		}
+
+		AtomicFiles.replace(tempFile, file);
+
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		channel.position(channel.size());
+		return new CommandJournal(file, channel, 0);
+	}
+
+	/**
+	 * Identifies one version of a products file by its size, modified time and
+	 * file key. Every save renames a new file into place, so a save always gets
+	 * a new fingerprint.
+	 *
+	 * @param snapshot is the products file
+	 * @return the file's fingerprint
+	 * @throws IOException if the file's attributes can't be read
+	 */
+	private static String fingerprint(Path snapshot) throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(snapshot, BasicFileAttributes.class);
+		return attributes.size() + ":" + attributes.lastModifiedTime().toMillis() + ":" + attributes.fileKey();
+	}
+
+	/**
+	 * Returns the journal file that goes with a products file
+	 *
+	 * @param snapshot is the products file
+	 * @return the journal file
+	 */
+	private static Path journalPath(Path snapshot) {
+		return snapshot.resolveSibling(snapshot.getFileName() + JOURNAL_SUFFIX);
+	}
+
+	/**
+	 * Reads the next record and checks it against its CRC32
+	 *
+	 * @param in    is the journal after the header
+	 * @param check is used to compute the CRC32
+	 * @return the record's bytes, or null at the end of the journal or at a
+	 *         record that was cut off or damaged
+	 * @throws IOException if the journal can't be read
+	 */
+	private static byte[] readRecord(DataInputStream in, CRC32 check) throws IOException {
+		try {
+			int length = in.readInt();
+			int expected = in.readInt();
+			if (length < 0 || length > MAX_RECORD_LENGTH) {
+				return null;
+			}
+			byte[] body = new byte[length];
+			in.readFully(body);
+
+			check.reset();
+			check.update(body, 0, length);
+			if ((int) check.getValue() != expected) {
+				return null;
+			}
+			return body;
+		} catch (EOFException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Applies one record to the products, skipping it if it can't be applied.
+	 * Commands in a batch that can't be applied are skipped one by one.
+	 *
+	 * @param body     is the record's bytes
+	 * @param products are the products to apply it to
+	 * @return the number of changes in the record
+	 */
+	private static int applyRecord(byte[] body, ArrayList<Product> products) {
+		int changes = 1;
+		try {
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+			byte kind = in.readByte();
+			String productName = readString(in);
+
+			if (kind == ADD_PRODUCT) {
+				products.add(new Product(productName));
+				return changes;
+			}
+
+			Product product = findProduct(products, productName);
+			if (product == null) {
+				return changes;
+			}
+
+			if (kind == ADD_TASK) {
+				String title = readString(in);
+				Type type = Type.values()[in.readByte()];
+				String creator = readString(in);
+				String note = readString(in);
+				product.addTask(title, type, creator, note);
+			} else if (kind == EXECUTE_COMMAND) {
+				int id = in.readInt();
+				CommandValue value = CommandValue.values()[in.readByte()];
+				String owner = readString(in);
+				String note = readString(in);
+				product.executeCommand(id, new Command(value, owner, note));
+			} else if (kind == DELETE_TASK) {
+				product.deleteTaskById(in.readInt());
+			} else if (kind == RENAME_PRODUCT) {
+				product.setProductName(readString(in));
+			} else if (kind == DELETE_PRODUCT) {
+				products.remove(product);
+			} else if (kind == EXECUTE_COMMANDS) {
+				changes = in.readInt();
+				for (int i = 0; i < changes; i++) {
+					int id = in.readInt();
+					CommandValue value = CommandValue.values()[in.readByte()];
+					String owner = readString(in);
+					String note = readString(in);
+					try {
+						product.executeCommand(id, new Command(value, owner, note));
+					} catch (RuntimeException e) {
+						// Skips this command and moves to the next
+					}
+				}
+			}
+		} catch (Exception e) {
+			// Skips this record and moves to the next
+		}
+		return changes;
+	}
+
+	/**
+	 * Finds the first product with the given name
+	 *
+	 * @param products    are the products to look through
+	 * @param productName is the name to look for
+	 * @return the product, or null if there isn't one with that name
+	 */
+	private static Product findProduct(ArrayList<Product> products, String productName) {
+		for (int i = 0; i < products.size(); i++) {
+			if (products.get(i).getProductName().equals(productName)) {
+				return products.get(i);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Writes a string as its UTF-8 length and bytes, or -1 for null
+	 *
+	 * @param out is where to write it
+	 * @param s   is the string, which may be null
+	 * @throws IOException if it can't be written
+	 */
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		if (s == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Reads a string written by writeString
+	 *
+	 * @param in is where to read it from
+	 * @return the string, which may be null
+	 * @throws IOException if it can't be read
+	 */
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		if (length > MAX_RECORD_LENGTH) {
+			throw new IOException("Invalid string length");
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,56 @@
+package edu.ncsu.csc216.product_backlog.model.io;
+
+/**
+ * Shares one String for each distinct creator or owner name read from a file.
+ * Names are looked up straight from the line they're on, so a name already in
+ * the pool costs no new String. The pool stops growing once it's full, and
+ * names after that are returned unshared.
+ */
+class NamePool {
+
+	/** Most names the pool will hold */
+	private static final int MAX_NAMES = 4096;
+	/** Number of slots in the table, kept at least twice MAX_NAMES */
+	private static final int TABLE_SIZE = 8192;
+
+	/** The names, in open addressed slots */
+	private final String[] names = new String[TABLE_SIZE];
+	/** The hash of the name in each slot */
+	private final int[] hashes = new int[TABLE_SIZE];
+	/** Number of names in the pool */
+	private int size;
+
+	/**
+	 * Returns the pooled String for the characters between start and end of the
+	 * line, adding it to the pool if it isn't there yet
+	 *
+	 * @param line  is the line the name is on
+	 * @param start is the index of the name's first character
+	 * @param end   is the index after the name's last character
+	 * @return the name
+	 */
+	String intern(String line, int start, int end) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + line.charAt(i);
+		}
+
+		int length = end - start;
+		int slot = (hash ^ (hash >>> 16)) & (TABLE_SIZE - 1);
+		while (names[slot] != null) {
+			String name = names[slot];
+			if (hashes[slot] == hash && name.length() == length && line.regionMatches(start, name, 0, length)) {
+				return name;
+			}
+			slot = (slot + 1) & (TABLE_SIZE - 1);
+		}
+
+		String name = line.substring(start, end);
+		if (size < MAX_NAMES) {
+			names[slot] = name;
+			hashes[slot] = hash;
+			size++;
+		}
+		return name;
+	}
+}
@@ -1,125 +1,251 @@
 package edu.ncsu.csc216.product_backlog.model.io;
 
+import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.util.ArrayList;
-import java.util.Scanner;
 
 import edu.ncsu.csc216.product_backlog.model.product.Product;
 import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.task.Task.State;
+import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
 
 /**
  * This handles the IO of the project
  */
 public class ProductsReader {
 
+	/** Number of comma separated fields on a task line */
+	private static final int TASK_FIELDS = 7;
+
 	/**
 	 * Reads the list of products from a file and puts them into a list of products
-	 * 
+	 *
+	 * The file is read one line at a time. A line starting with # starts a new
+	 * product, a line starting with * starts a new task in that product, and a
+	 * line starting with - adds a note to that task. Any other line continues the
+	 * last note as it is, so blank lines and indentation inside a note are kept,
+	 * and only the space around the whole note is trimmed. Invalid tasks are
+	 * skipped, and so are invalid products and products with no valid tasks.
+	 *
+	 * A task's state and type are read straight into their enums, and creator
+	 * and owner names are shared through a NamePool, so a large file doesn't
+	 * keep a separate copy of each name for every task.
+	 *
 	 * @param fileName is the name of the file
 	 * @return an ArrayList of the products in the file
 	 * @throws IllegalArgumentException if unable to load from file
 	 */
 	public static ArrayList<Product> readProductsFile(String fileName) throws IllegalArgumentException {
 		try {
-			Scanner fileReader = new Scanner(new FileInputStream(fileName)); // Create a file scanner to read the file
+			// Create a buffered reader to read the file line by line
+			BufferedReader fileReader = new BufferedReader(new InputStreamReader(new FileInputStream(fileName)));
 			ArrayList<Product> productList = new ArrayList<Product>();
 
-			String productLine = "";
-			fileReader.useDelimiter("\\r?\\n?[#]");
-			
-			while(fileReader.hasNext()) {
-				productLine = fileReader.next();
-				
-				if(processProduct(productLine) != null && processProduct(productLine).getTasks().size() != 0) {
-					productList.add(processProduct(productLine));
+			try {
+				// The product being read, null before the first one or if it's invalid
+				Product product = null;
+				// The task being read, null until the product's first task
+				String taskLine = null;
+				ArrayList<String> notes = new ArrayList<String>();
+				NamePool names = new NamePool();
+
+				String line;
+				while ((line = fileReader.readLine()) != null) {
+					char marker = line.length() == 0 ? ' ' : line.charAt(0);
+					if (marker == '#') {
+						addTask(product, taskLine, notes, names);
+						addProduct(productList, product);
+						product = processProduct(line.substring(1).trim());
+						taskLine = null;
+						notes = new ArrayList<String>();
+					} else if (marker == '*') {
+						addTask(product, taskLine, notes, names);
+						taskLine = line.substring(1);
+						notes = new ArrayList<String>();
+					} else if (taskLine == null) {
+						continue;
+					} else if (marker == '-') {
+						notes.add(line.substring(1));
+					} else if (notes.size() > 0) {
+						// Continuation lines are kept as they are, blank and indented ones included
+						int last = notes.size() - 1;
+						notes.set(last, notes.get(last) + '\n' + line);
+					}
 				}
+
+				addTask(product, taskLine, notes, names);
+				addProduct(productList, product);
+			} finally {
+				fileReader.close();
 			}
-			fileReader.close();
 			return productList;
 		} catch (FileNotFoundException e) {
 			throw new IllegalArgumentException("Unable to load file.");
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to load file.");
 		}
 	}
 
 	/**
-	 * Processes the next line of the file into a product
-	 * 
-	 * @param productLine is the next like from the file to be processed
-	 * @return Product a new Product
+	 * Creates a product from the name on its # line
+	 *
+	 * @param productName is the name from the file
+	 * @return Product a new Product, or null if the name isn't valid
 	 */
-	private static Product processProduct(String productLine) {
-		String productName = "";
-		String taskLine = "";
-		
-		Scanner productScanner = new Scanner(productLine);
-		productName = productScanner.nextLine().trim();
-		Product newProduct = new Product(productName);
-		
-		productScanner.useDelimiter("\\r?\\n?[*]");
-		
-		while(productScanner.hasNext()) {
-			taskLine = productScanner.next();
-			
-			try {
-				newProduct.addTask(processTask(taskLine));
-			} catch (Exception e) {
-				//Stops this iteration (task line) and moves to the next
-				continue;
-			}
-		}
-		
-		productScanner.close();
-		
-		if(productName.contains(",")) {
+	private static Product processProduct(String productName) {
+		if (productName.length() == 0 || productName.contains(",")) {
 			return null;
 		} else {
-			return newProduct;
+			return new Product(productName);
 		}
 	}
 
 	/**
-	 * This method processes a task from a string read from the file
-	 * 
+	 * Adds a finished product to the list if it's valid and has any tasks
+	 *
+	 * @param productList is the list of products read so far
+	 * @param product     is the product that was just read
+	 */
+	private static void addProduct(ArrayList<Product> productList, Product product) {
+		if (product != null && product.getTasks().size() != 0) {
+			productList.add(product);
+		}
+	}
+
+	/**
+	 * Adds a finished task to its product, skipping it if it's invalid
+	 *
+	 * @param product  is the product the task is in
+	 * @param taskLine is the task's line from the file without the *
+	 * @param notes    are the task's notes
+	 * @param names    is the pool of creator and owner names
+	 */
+	private static void addTask(Product product, String taskLine, ArrayList<String> notes, NamePool names) {
+		if (product == null || taskLine == null) {
+			return;
+		}
+
+		try {
+			product.addTask(processTask(taskLine, notes, names));
+		} catch (Exception e) {
+			// Skips this task and moves to the next
+		}
+	}
+
+	/**
+	 * This method processes a task from its line in the file and its notes
+	 *
 	 * @param taskLine is the line that the task is on
+	 * @param notes    are the task's notes
+	 * @param names    is the pool of creator and owner names
 	 * @return a task
 	 */
-	private static Task processTask(String taskLine) {
-		Scanner taskScanner = new Scanner(taskLine);
-
-		String taskInfo = taskScanner.nextLine();
-
-		Scanner taskScanner2 = new Scanner(taskInfo);
-		taskScanner2.useDelimiter(",");
-		String idString = taskScanner2.next();
-		int id = Integer.parseInt(idString.trim());
-		String state = taskScanner2.next().trim();
-		String title = taskScanner2.next().trim();
-		String type = taskScanner2.next().trim();
-		String creator = taskScanner2.next().trim();
-		String owner = taskScanner2.next().trim();
-		String verified = taskScanner2.next().trim();
-
-		taskScanner2.close();
-
-		String subNote = "";
-		ArrayList<String> notes = new ArrayList<String>();
-		taskScanner.useDelimiter("\\r?\\n?[-]");
-		while (taskScanner.hasNext()) {
-			String fullNote = taskScanner.next();
-			subNote = fullNote.substring(1);
-			notes.add(subNote.trim());
+	private static Task processTask(String taskLine, ArrayList<String> notes, NamePool names) {
+		// Start and end of each field, with the spaces around it trimmed
+		int[] bounds = new int[TASK_FIELDS * 2];
+		int start = 0;
+		for (int i = 0; i < TASK_FIELDS; i++) {
+			int comma = taskLine.indexOf(',', start);
+			if (comma < 0) {
+				if (i < TASK_FIELDS - 1) {
+					throw new IllegalArgumentException("Invalid task information.");
+				}
+				comma = taskLine.length();
+			}
+			int fieldStart = start;
+			int fieldEnd = comma;
+			while (fieldStart < fieldEnd && taskLine.charAt(fieldStart) <= ' ') {
+				fieldStart++;
+			}
+			while (fieldEnd > fieldStart && taskLine.charAt(fieldEnd - 1) <= ' ') {
+				fieldEnd--;
+			}
+			bounds[2 * i] = fieldStart;
+			bounds[2 * i + 1] = fieldEnd;
+			start = comma + 1;
 		}
 
-		taskScanner.close();
+		int id = Integer.parseInt(taskLine.substring(bounds[0], bounds[1]));
+		State state = readState(taskLine, bounds[2], bounds[3]);
+		String title = taskLine.substring(bounds[4], bounds[5]);
+		Type type = readType(taskLine, bounds[6], bounds[7]);
+		String creator = names.intern(taskLine, bounds[8], bounds[9]);
+		String owner = names.intern(taskLine, bounds[10], bounds[11]);
+		// A value that's neither true nor false isn't checked against the state
+		Boolean verified = null;
+		if (fieldEquals(taskLine, bounds[12], bounds[13], "true")) {
+			verified = Boolean.TRUE;
+		} else if (fieldEquals(taskLine, bounds[12], bounds[13], "false")) {
+			verified = Boolean.FALSE;
+		}
 
 		if (notes.size() < 1) {
 			id = -1;
 		}
+		for (int i = 0; i < notes.size(); i++) {
+			notes.set(i, notes.get(i).trim());
+		}
 
 		//id set to negative so this should throw an exception if no notes
 		Task task = new Task(id, state, title, type, creator, owner, verified, notes);
 		return task;
 
 	}
+
+	/**
+	 * Finds the state named by a field of a task line
+	 *
+	 * @param taskLine is the line that the task is on
+	 * @param start    is the index of the field's first character
+	 * @param end      is the index after the field's last character
+	 * @return the state
+	 * @throws IllegalArgumentException if the field isn't a state name
+	 */
+	private static State readState(String taskLine, int start, int end) {
+		State[] states = State.values();
+		for (int i = 0; i < states.length; i++) {
+			if (fieldEquals(taskLine, start, end, states[i].getStateName())) {
+				return states[i];
+			}
+		}
+		throw new IllegalArgumentException("Invalid task information.");
+	}
+
+	/**
+	 * Finds the type named by a field of a task line
+	 *
+	 * @param taskLine is the line that the task is on
+	 * @param start    is the index of the field's first character
+	 * @param end      is the index after the field's last character
+	 * @return the type
+	 * @throws IllegalArgumentException if the field isn't a type's short name
+	 */
+	private static Type readType(String taskLine, int start, int end) {
+		if (fieldEquals(taskLine, start, end, Task.T_FEATURE)) {
+			return Type.FEATURE;
+		} else if (fieldEquals(taskLine, start, end, Task.T_BUG)) {
+			return Type.BUG;
+		} else if (fieldEquals(taskLine, start, end, Task.T_TECHNICAL_WORK)) {
+			return Type.TECHNICAL_WORK;
+		} else if (fieldEquals(taskLine, start, end, Task.T_KNOWLEDGE_ACQUISITION)) {
+			return Type.KNOWLEDGE_ACQUISITION;
+		}
+		throw new IllegalArgumentException("Invalid task information.");
+	}
+
+	/**
+	 * Checks if a field of a task line is the given value
+	 *
+	 * @param taskLine is the line that the task is on
+	 * @param start    is the index of the field's first character
+	 * @param end      is the index after the field's last character
+	 * @param value    is the value to compare to
+	 * @return true if the field is the value
+	 */
+	private static boolean fieldEquals(String taskLine, int start, int end, String value) {
+		return end - start == value.length() && taskLine.regionMatches(start, value, 0, value.length());
+	}
 }
@@ -0,0 +1,469 @@
+package edu.ncsu.csc216.product_backlog.model.io;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import edu.ncsu.csc216.product_backlog.model.product.Product;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+
+/**
+ * Reads and writes products in a compact binary snapshot format, and converts
+ * snapshots to and from the text format used by ProductsReader and
+ * ProductsWriter.
+ *
+ * A snapshot starts with a magic number and a version byte, followed by a
+ * table of the creator and owner names used by the tasks. Each product is its
+ * name and its tasks. Each task is its id, state and type, its title, the
+ * table positions of its creator and owner, whether it's verified, and its
+ * notes. Counts, ids and table positions are stored as varints, states and
+ * types as one byte each, and strings as a varint length and their UTF-8
+ * bytes. The file ends with a CRC32 of everything before it.
+ */
+public class ProductsSnapshot {
+
+	/** File name extension that saves in the snapshot format */
+	public static final String SNAPSHOT_EXTENSION = ".pbs";
+
+	/** First four bytes of a snapshot file */
+	private static final int MAGIC = 0x50425331;
+	/** Version of the snapshot format */
+	private static final byte VERSION = 1;
+	/** Size of the buffer between the products and the file */
+	private static final int BUFFER_SIZE = 64 * 1024;
+	/** Bytes in the magic number and version */
+	private static final int HEADER_SIZE = 5;
+	/** Bytes in the CRC32 at the end of the file */
+	private static final int TRAILER_SIZE = 4;
+
+	/** Task state names, in the order of Task.State */
+	private static final String[] STATE_NAMES = { Task.BACKLOG_NAME, Task.OWNED_NAME, Task.PROCESSING_NAME,
+			Task.VERIFYING_NAME, Task.DONE_NAME, Task.REJECTED_NAME };
+	/** Task type short names, in the order of Task.Type */
+	private static final String[] TYPE_SHORT_NAMES = { Task.T_FEATURE, Task.T_BUG, Task.T_TECHNICAL_WORK,
+			Task.T_KNOWLEDGE_ACQUISITION };
+
+	/**
+	 * Checks if a file should be read and written as a snapshot, which is when
+	 * its name ends with SNAPSHOT_EXTENSION or it already starts like a snapshot
+	 *
+	 * @param fileName is the name of the file
+	 * @return true if the file is a snapshot
+	 */
+	public static boolean isSnapshot(String fileName) {
+		if (fileName.endsWith(SNAPSHOT_EXTENSION)) {
+			return true;
+		}
+		try {
+			FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+			try {
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+				while (header.hasRemaining() && channel.read(header) >= 0) {
+					continue;
+				}
+				header.flip();
+				return header.remaining() == HEADER_SIZE && header.getInt() == MAGIC;
+			} finally {
+				channel.close();
+			}
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Reads the list of products from a snapshot. Invalid tasks are skipped,
+	 * and so are products with no valid tasks, the same as ProductsReader. The
+	 * file is read into memory rather than mapped, since a mapping keeps the
+	 * file open until it's garbage collected, and on some systems an open file
+	 * can't be saved over.
+	 *
+	 * @param fileName is the name of the file
+	 * @return an ArrayList of the products in the file
+	 * @throws IllegalArgumentException if unable to load from file
+	 */
+	public static ArrayList<Product> readSnapshot(String fileName) throws IllegalArgumentException {
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(Paths.get(fileName)));
+
+			if (buffer.limit() < HEADER_SIZE + TRAILER_SIZE || buffer.getInt() != MAGIC
+					|| buffer.get() != VERSION) {
+				throw new IllegalArgumentException("Unable to load file.");
+			}
+
+			int end = buffer.limit() - TRAILER_SIZE;
+			CRC32 crc = new CRC32();
+			ByteBuffer body = buffer.duplicate();
+			body.position(0).limit(end);
+			crc.update(body);
+			if ((int) crc.getValue() != buffer.getInt(end)) {
+				throw new IllegalArgumentException("Unable to load file.");
+			}
+			buffer.limit(end);
+
+			String[] names = new String[getVarint(buffer)];
+			for (int i = 0; i < names.length; i++) {
+				names[i] = getString(buffer);
+			}
+
+			int productCount = getVarint(buffer);
+			ArrayList<Product> productList = new ArrayList<Product>(productCount);
+			for (int i = 0; i < productCount; i++) {
+				Product product = new Product(getString(buffer));
+				int taskCount = getVarint(buffer);
+				for (int j = 0; j < taskCount; j++) {
+					readTask(buffer, names, product);
+				}
+				if (product.getTasks().size() != 0) {
+					productList.add(product);
+				}
+			}
+			return productList;
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		} catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		} catch (IndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+	}
+
+	/**
+	 * Writes the products list to a snapshot. Like ProductsWriter, the snapshot
+	 * is written to a temporary file that is synced and renamed over the target.
+	 *
+	 * @param fileName is the name of the file
+	 * @param products is the ArrayList of products
+	 * @throws IllegalArgumentException if there are any errors or exceptions
+	 */
+	public static void writeSnapshot(String fileName, ArrayList<Product> products) throws IllegalArgumentException {
+		Path tempFile = null;
+		try {
+			Path target = Paths.get(fileName).toAbsolutePath();
+			tempFile = AtomicFiles.tempFile(target);
+
+			// Collect the creator and owner names first so the table can go up front
+			HashMap<String, Integer> nameIndex = new HashMap<String, Integer>();
+			ArrayList<String> names = new ArrayList<String>();
+			for (int i = 0; i < products.size(); i++) {
+				for (Task task : products.get(i).getTasks()) {
+					addName(nameIndex, names, task.getCreator());
+					addName(nameIndex, names, task.getOwner());
+				}
+			}
+
+			FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+			try {
+				Output out = new Output(channel);
+				out.putInt(MAGIC);
+				out.putByte(VERSION);
+
+				out.putVarint(names.size());
+				for (int i = 0; i < names.size(); i++) {
+					out.putString(names.get(i));
+				}
+
+				out.putVarint(products.size());
+				for (int i = 0; i < products.size(); i++) {
+					Product product = products.get(i);
+					out.putString(product.getProductName());
+
+					out.putVarint(product.getTasks().size());
+					for (Task task : product.getTasks()) {
+						writeTask(out, task, nameIndex);
+					}
+				}
+
+				out.finish();
+				channel.force(true);
+			} finally {
+				channel.close();
+			}
+
+			AtomicFiles.replace(tempFile, target);
+		} catch (IOException e) {
+			AtomicFiles.deleteQuietly(tempFile);
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Converts a products file in the text format to a snapshot
+	 *
+	 * @param textFileName     is the name of the text file to read
+	 * @param snapshotFileName is the name of the snapshot to write
+	 * @throws IllegalArgumentException if either file can't be read or written
+	 */
+	public static void importText(String textFileName, String snapshotFileName) throws IllegalArgumentException {
+		writeSnapshot(snapshotFileName, ProductsReader.readProductsFile(textFileName));
+	}
+
+	/**
+	 * Converts a snapshot to a products file in the text format
+	 *
+	 * @param snapshotFileName is the name of the snapshot to read
+	 * @param textFileName     is the name of the text file to write
+	 * @throws IllegalArgumentException if either file can't be read or written
+	 */
+	public static void exportText(String snapshotFileName, String textFileName) throws IllegalArgumentException {
+		ProductsWriter.writeProductsToFile(textFileName, readSnapshot(snapshotFileName));
+	}
+
+	/**
+	 * Converts between the formats from the command line, with either
+	 * "import textFile snapshotFile" or "export snapshotFile textFile"
+	 *
+	 * @param args are the command line arguments
+	 */
+	public static void main(String[] args) {
+		if (args.length == 3 && "import".equals(args[0])) {
+			importText(args[1], args[2]);
+		} else if (args.length == 3 && "export".equals(args[0])) {
+			exportText(args[1], args[2]);
+		} else {
+			System.err.println("Usage: ProductsSnapshot import <text file> <snapshot file>");
+			System.err.println("       ProductsSnapshot export <snapshot file> <text file>");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Reads one task and adds it to its product, skipping it if it's invalid
+	 *
+	 * @param buffer  is the snapshot, positioned at the task
+	 * @param names   is the table of creator and owner names
+	 * @param product is the product the task is in
+	 */
+	private static void readTask(ByteBuffer buffer, String[] names, Product product) {
+		int id = getVarint(buffer);
+		int state = buffer.get();
+		int type = buffer.get();
+		String title = getString(buffer);
+		String creator = names[getVarint(buffer)];
+		String owner = names[getVarint(buffer)];
+		boolean verified = buffer.get() != 0;
+		int noteCount = getVarint(buffer);
+		ArrayList<String> notes = new ArrayList<String>(noteCount);
+		for (int i = 0; i < noteCount; i++) {
+			notes.add(getString(buffer));
+		}
+
+		if (state < 0 || state >= STATE_NAMES.length || type < 0 || type >= TYPE_SHORT_NAMES.length
+				|| noteCount < 1) {
+			return;
+		}
+
+		try {
+			product.addTask(new Task(id, STATE_NAMES[state], title, TYPE_SHORT_NAMES[type], creator, owner,
+					Boolean.toString(verified), notes));
+		} catch (Exception e) {
+			// Skips this task and moves to the next
+		}
+	}
+
+	/**
+	 * Writes one task
+	 *
+	 * @param out       is where to write it
+	 * @param task      is the task
+	 * @param nameIndex maps creator and owner names to their table positions
+	 * @throws IOException if it can't be written
+	 */
+	private static void writeTask(Output out, Task task, HashMap<String, Integer> nameIndex) throws IOException {
+		out.putVarint(task.getTaskId());
+		out.putByte(task.getState().ordinal());
+		out.putByte(task.getType().ordinal());
+		out.putString(task.getTitle());
+		out.putVarint(nameIndex.get(task.getCreator()));
+		out.putVarint(nameIndex.get(task.getOwner()));
+		out.putByte(task.isVerified() ? 1 : 0);
+
+		List<String> notes = task.getNotes();
+		out.putVarint(notes.size());
+		for (int i = 0; i < notes.size(); i++) {
+			out.putString(notes.get(i));
+		}
+	}
+
+	/**
+	 * Adds a name to the table if it isn't there yet
+	 *
+	 * @param nameIndex maps names to their table positions
+	 * @param names     is the table
+	 * @param name      is the name to add
+	 */
+	private static void addName(HashMap<String, Integer> nameIndex, ArrayList<String> names, String name) {
+		if (!nameIndex.containsKey(name)) {
+			nameIndex.put(name, names.size());
+			names.add(name);
+		}
+	}
+
+	/**
+	 * Reads an unsigned varint
+	 *
+	 * @param buffer is where to read it from
+	 * @return the value
+	 * @throws IllegalArgumentException if the varint is too long for an int
+	 */
+	private static int getVarint(ByteBuffer buffer) {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			byte b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				if (value < 0) {
+					throw new IllegalArgumentException("Unable to load file.");
+				}
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Unable to load file.");
+	}
+
+	/**
+	 * Reads a string stored as a varint length and its UTF-8 bytes
+	 *
+	 * @param buffer is where to read it from
+	 * @return the string
+	 */
+	private static String getString(ByteBuffer buffer) {
+		int length = getVarint(buffer);
+		if (length > buffer.remaining()) {
+			throw new BufferUnderflowException();
+		}
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Buffers the bytes of a snapshot on their way to the file and keeps the
+	 * CRC32 of everything written
+	 */
+	private static class Output {
+
+		/** The file being written */
+		private final FileChannel channel;
+		/** Bytes waiting to be written */
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		/** CRC32 of the bytes written so far */
+		private final CRC32 crc = new CRC32();
+
+		/**
+		 * Creates an output for the given file
+		 *
+		 * @param channel is the file to write to
+		 */
+		Output(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		/**
+		 * Writes one byte
+		 *
+		 * @param b is the byte
+		 * @throws IOException if it can't be written
+		 */
+		void putByte(int b) throws IOException {
+			ensure(1);
+			buffer.put((byte) b);
+		}
+
+		/**
+		 * Writes a four byte int
+		 *
+		 * @param value is the int
+		 * @throws IOException if it can't be written
+		 */
+		void putInt(int value) throws IOException {
+			ensure(4);
+			buffer.putInt(value);
+		}
+
+		/**
+		 * Writes a non-negative int as an unsigned varint
+		 *
+		 * @param value is the int
+		 * @throws IOException if it can't be written
+		 */
+		void putVarint(int value) throws IOException {
+			ensure(5);
+			while ((value & ~0x7F) != 0) {
+				buffer.put((byte) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			buffer.put((byte) value);
+		}
+
+		/**
+		 * Writes a string as a varint length and its UTF-8 bytes
+		 *
+		 * @param s is the string
+		 * @throws IOException if it can't be written
+		 */
+		void putString(String s) throws IOException {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			putVarint(bytes.length);
+			int offset = 0;
+			while (offset < bytes.length) {
+				ensure(1);
+				int count = Math.min(buffer.remaining(), bytes.length - offset);
+				buffer.put(bytes, offset, count);
+				offset += count;
+			}
+		}
+
+		/**
+		 * Writes the CRC32 of everything so far and flushes the buffer
+		 *
+		 * @throws IOException if it can't be written
+		 */
+		void finish() throws IOException {
+			flush();
+			buffer.putInt((int) crc.getValue());
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+
+		/**
+		 * Flushes the buffer if it has less than the given room left
+		 *
+		 * @param bytes is the room needed
+		 * @throws IOException if the buffer can't be written
+		 */
+		private void ensure(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				flush();
+			}
+		}
+
+		/**
+		 * Writes the buffer to the file and adds it to the CRC32
+		 *
+		 * @throws IOException if it can't be written
+		 */
+		private void flush() throws IOException {
+			buffer.flip();
+			crc.update(buffer.duplicate());
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+	}
+}
@@ -1,7 +1,11 @@
 package edu.ncsu.csc216.product_backlog.model.io;
 
-import java.io.File;
-import java.io.PrintStream;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 
 import edu.ncsu.csc216.product_backlog.model.product.Product;
@@ -12,6 +16,9 @@ import edu.ncsu.csc216.product_backlog.model.task.Task;
  */
 public class ProductsWriter {
 
+	/** Size of the buffer between the tasks and the file */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
 	/**
 	 * The constructor for ProductsWriter
 	 */
@@ -20,7 +27,12 @@ public class ProductsWriter {
 	}
 
 	/**
-	 * Writes the products list to a specified file
+	 * Writes the products list to a specified file. Each task is built in one
+	 * reused StringBuilder and streamed through a buffered writer.
+	 * 
+	 * The products are written to a temporary file in the same directory, which
+	 * is synced to disk and then renamed over the target. A crash part way
+	 * through a save leaves the old file as it was.
 	 * 
 	 * @param fileName is the name of the file
 	 * @param products is the ArrayList of products
@@ -29,19 +41,37 @@ public class ProductsWriter {
 	public static void writeProductsToFile(String fileName, ArrayList<Product> products)
 			throws IllegalArgumentException {
 
+		Path tempFile = null;
 		try {
-			PrintStream fileWriter = new PrintStream(new File(fileName));
+			Path target = Paths.get(fileName).toAbsolutePath();
+			tempFile = AtomicFiles.tempFile(target);
+			FileOutputStream stream = new FileOutputStream(tempFile.toFile());
+			Writer fileWriter = new BufferedWriter(new OutputStreamWriter(stream), BUFFER_SIZE);
+
+			try {
+				StringBuilder taskString = new StringBuilder();
+				String newLine = System.lineSeparator();
 
-			for (Product a : products) {
-				fileWriter.println("# " + a.getProductName());
-				for(Task b: a.getTasks()) {
-					fileWriter.print(b.toString());
+				for (Product a : products) {
+					fileWriter.write("# ");
+					fileWriter.write(a.getProductName());
+					fileWriter.write(newLine);
+					for (Task b : a.getTasks()) {
+						taskString.setLength(0);
+						b.appendTo(taskString);
+						fileWriter.append(taskString);
+					}
 				}
+				fileWriter.flush();
+				stream.getFD().sync();
+			} finally {
+				fileWriter.close();
 			}
 
-			fileWriter.close();
+			AtomicFiles.replace(tempFile, target);
 
 		} catch (Exception e) {
+			AtomicFiles.deleteQuietly(tempFile);
 			throw new IllegalArgumentException("Unable to read file");
 		}
 
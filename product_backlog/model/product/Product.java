@@ -4,8 +4,9 @@
 package edu.ncsu.csc216.product_backlog.model.product;
 
 import java.util.ArrayList;
-
+import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import edu.ncsu.csc216.product_backlog.model.command.Command;
 import edu.ncsu.csc216.product_backlog.model.task.Task;
@@ -23,6 +24,12 @@ public class Product {
 	 */
 	private ArrayList<Task> tasks;
 
+	/**
+	 * This field maps each task id to its task so tasks can be found without
+	 * scanning the list. It always holds the same tasks as the list
+	 */
+	private HashMap<Integer, Task> taskIndex;
+
 	/**
 	 * This field is responsible for holding the product name
 	 */
@@ -34,6 +41,13 @@ public class Product {
 	 */
 	private int counter;
 
+	/**
+	 * This guards the product's list of tasks when it's shared between threads.
+	 * It's taken by BacklogManager, not by the product's own methods. Commands
+	 * only need it for reading, since each task guards its own updates.
+	 */
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
 	/**
 	 * This is Product's constructor. It sets the product name
 	 * 
@@ -42,10 +56,26 @@ public class Product {
 	public Product(String name) {
 		setProductName(name);
 		this.tasks = new ArrayList<Task>();
+		this.taskIndex = new HashMap<Integer, Task>();
 		this.counter = 1;
 
 	}
 
+	/**
+	 * Constructs a copy of a product with copies of its tasks, so it can be
+	 * saved without holding the product's lock. The caller holds the lock while
+	 * the copy is made.
+	 * 
+	 * @param product is the product to copy
+	 */
+	public Product(Product product) {
+		this(product.productName);
+		for (int i = 0; i < product.tasks.size(); i++) {
+			addTask(new Task(product.tasks.get(i)));
+		}
+		this.counter = product.counter;
+	}
+
 	/**
 	 * Sets the product name.
 	 *
@@ -62,6 +92,15 @@ public class Product {
 		}
 	}
 
+	/**
+	 * Retrieves the lock that guards the product's tasks.
+	 *
+	 * @return The product's lock.
+	 */
+	public ReentrantReadWriteLock getLock() {
+		return lock;
+	}
+
 	/**
 	 * Retrieves the product name.
 	 *
@@ -81,26 +120,16 @@ public class Product {
 	public void addTask(Task task) {
 		int newTaskId = task.getTaskId();
 
-		for (int i = 0; i < tasks.size(); i++) {
-			if (newTaskId == tasks.get(i).getTaskId()) {
-				throw new IllegalArgumentException("Task cannot be added.");
-			}
+		if (taskIndex.containsKey(newTaskId)) {
+			throw new IllegalArgumentException("Task cannot be added.");
 		}
+		taskIndex.put(newTaskId, task);
 
-		if (tasks.size() == 0) {
+		// New tasks get the highest id, so they almost always go on the end
+		if (tasks.size() == 0 || newTaskId > tasks.get(tasks.size() - 1).getTaskId()) {
 			tasks.add(task);
 		} else {
-			for (int i = 0; i < tasks.size(); i++) {
-				if (newTaskId < tasks.get(i).getTaskId()) {
-					tasks.add(i, task);
-					break;
-
-					// if you reach the end its not smaller than any of the tasks
-				} else if (i == tasks.size() - 1) {
-					tasks.add(task);
-					break;
-				}
-			}
+			tasks.add(-(findTaskIndex(newTaskId) + 1), task);
 		}
 	}
 
@@ -112,15 +141,17 @@ public class Product {
 	 * @param type    The type of the task.
 	 * @param creator The creator of the task.
 	 * @param note    Additional notes for the task.
+	 * @return The new task.
 	 * @throws IllegalArgumentException If a task with the same ID already exists in
 	 *                                  the list.
 	 */
-	public void addTask(String title, Type type, String creator, String note) {
+	public Task addTask(String title, Type type, String creator, String note) {
 		setTaskCounter();
 
 		Task newTask = new Task(counter, title, type, creator, note);
 
 		addTask(newTask);
+		return newTask;
 	}
 
 	/**
@@ -139,13 +170,7 @@ public class Product {
 	 * @return The task with the given ID, or null if no task with that ID exists.
 	 */
 	public Task getTaskById(int id) {
-		for (int i = 0; i < tasks.size(); i++) {
-			if (tasks.get(i).getTaskId() == id) {
-				return tasks.get(i);
-			}
-		}
-
-		return null;
+		return taskIndex.get(id);
 	}
 
 	/**
@@ -154,10 +179,8 @@ public class Product {
 	 * @param id The ID of the task to delete.
 	 */
 	public void deleteTaskById(int id) {
-		for (int i = 0; i < tasks.size(); i++) {
-			if (tasks.get(i).getTaskId() == id) {
-				tasks.remove(i);
-			}
+		if (taskIndex.remove(id) != null) {
+			tasks.remove(findTaskIndex(id));
 		}
 	}
 
@@ -168,24 +191,47 @@ public class Product {
 	 * @param c  The command to execute on the task.
 	 */
 	public void executeCommand(int id, Command c) {
-		for (int i = 0; i < tasks.size(); i++) {
-			if (tasks.get(i).getTaskId() == id) {
-				tasks.get(i).update(c);
-				
+		Task task = taskIndex.get(id);
+		if (task != null) {
+			task.update(c);
+		}
+	}
+
+	/**
+	 * Binary searches the list, which is sorted by task ID, for a task's position
+	 *
+	 * @param id The ID of the task to find.
+	 * @return The position of the task in the list, or -(insertion point) - 1 if
+	 *         no task with that ID is in the list
+	 */
+	private int findTaskIndex(int id) {
+		int low = 0;
+		int high = tasks.size() - 1;
+
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int middleId = tasks.get(middle).getTaskId();
+			if (middleId < id) {
+				low = middle + 1;
+			} else if (middleId > id) {
+				high = middle - 1;
+			} else {
+				return middle;
 			}
 		}
+
+		return -(low + 1);
 	}
 
 	/**
-	 * Finds the highest id and sets the task to (highest + 1)
+	 * Finds the highest id and sets the task to (highest + 1). The list is
+	 * sorted by id, so the highest id is always the last task's
 	 */
 	private void setTaskCounter() {
 		int highestId = 0;
 
-		for (int i = 0; i < tasks.size(); i++) {
-			if (tasks.get(i).getTaskId() > highestId) {
-				highestId = tasks.get(i).getTaskId();
-			}
+		if (tasks.size() > 0) {
+			highestId = tasks.get(tasks.size() - 1).getTaskId();
 		}
 
 		counter = highestId + 1;
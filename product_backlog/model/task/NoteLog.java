@@ -0,0 +1,250 @@
+package edu.ncsu.csc216.product_backlog.model.task;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Holds a task's notes. Notes are only ever added, so they're kept in fixed
+ * size chunks that are never copied as the log grows.
+ *
+ * The notes list shown for a task is built the first time it's asked for and
+ * then kept up to date as notes are added, so asking again costs nothing
+ * until the next note. Tasks that are never shown never build it.
+ *
+ * A task's notes can be read while another thread adds one, so every method
+ * holds the log's lock, and the cached list and array always match the notes.
+ * The list view takes the lock for each get and size.
+ *
+ * A copy shares the chunks with the log it was copied from, since notes before
+ * the end of either log never change. It renders through that log for as long
+ * as the two hold the same notes, so copying a task to show it doesn't lose
+ * the cached notes list. A copy only gets chunks of its own if a note is added
+ * to it.
+ */
+final class NoteLog {
+
+	/** Number of notes in each chunk */
+	private static final int CHUNK_SIZE = 16;
+
+	/** The chunks of notes, filled in order */
+	private String[][] chunks = new String[1][];
+	/** Number of notes in the log */
+	private int size;
+
+	/** The rendered notes list, or null if it hasn't been asked for yet */
+	private StringBuilder rendered;
+	/** The rendered notes list as a String, or null if a note was added since */
+	private String renderedString;
+	/** The notes as an array, or null if a note was added since */
+	private String[] array;
+	/** A read only list view of the notes */
+	private List<String> view;
+	/**
+	 * The log this was copied from, which the chunks are shared with, or null if
+	 * the chunks are this log's own
+	 */
+	private NoteLog source;
+
+	/**
+	 * Adds a note to the end of the log
+	 *
+	 * @param note is the note to add
+	 */
+	synchronized void add(String note) {
+		if (source != null) {
+			ownChunks();
+		}
+		int chunk = size / CHUNK_SIZE;
+		if (chunk == chunks.length) {
+			String[][] grown = new String[chunks.length * 2][];
+			System.arraycopy(chunks, 0, grown, 0, chunks.length);
+			chunks = grown;
+		}
+		if (chunks[chunk] == null) {
+			chunks[chunk] = new String[CHUNK_SIZE];
+		}
+		chunks[chunk][size % CHUNK_SIZE] = note;
+		size++;
+
+		if (rendered != null) {
+			appendNote(rendered, note);
+		}
+		renderedString = null;
+		array = null;
+	}
+
+	/**
+	 * Returns a new log holding the same notes. It shares this log's chunks and
+	 * cached notes list, so copying costs the same however many notes there are.
+	 *
+	 * @return the copy
+	 */
+	synchronized NoteLog copy() {
+		NoteLog copy = new NoteLog();
+		copy.chunks = chunks;
+		copy.size = size;
+		copy.renderedString = renderedString;
+		copy.array = array;
+		copy.source = source == null ? this : source;
+		return copy;
+	}
+
+	/**
+	 * Returns the note at the given position
+	 *
+	 * @param index is the position of the note
+	 * @return the note
+	 * @throws IndexOutOfBoundsException if there's no note at that position
+	 */
+	synchronized String get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return chunks[index / CHUNK_SIZE][index % CHUNK_SIZE];
+	}
+
+	/**
+	 * Returns the number of notes
+	 *
+	 * @return the number of notes
+	 */
+	synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the notes list, with each note on its own line after "- "
+	 *
+	 * @return the notes list
+	 */
+	synchronized String render() {
+		if (renderedString == null && source != null) {
+			renderedString = source.renderIfSize(size);
+		}
+		if (renderedString == null) {
+			renderedString = rendered().toString();
+		}
+		return renderedString;
+	}
+
+	/**
+	 * Appends the notes list, as returned by render, to a builder. Doesn't build
+	 * the cached notes list if it hasn't been asked for.
+	 *
+	 * @param builder is the builder to append to
+	 */
+	synchronized void appendTo(StringBuilder builder) {
+		if (rendered != null) {
+			builder.append(rendered);
+		} else if (renderedString != null) {
+			builder.append(renderedString);
+		} else {
+			for (int i = 0; i < size; i++) {
+				appendNote(builder, get(i));
+			}
+		}
+	}
+
+	/**
+	 * Returns the notes as an array. The same array is returned until the next
+	 * note is added, so callers must not change it.
+	 *
+	 * @return the notes
+	 */
+	synchronized String[] toArray() {
+		if (array == null && source != null) {
+			array = source.toArrayIfSize(size);
+		}
+		if (array == null) {
+			array = new String[size];
+			for (int i = 0; i < size; i += CHUNK_SIZE) {
+				System.arraycopy(chunks[i / CHUNK_SIZE], 0, array, i, Math.min(CHUNK_SIZE, size - i));
+			}
+		}
+		return array;
+	}
+
+	/**
+	 * Returns a read only list view of the notes, which shows notes added later
+	 *
+	 * @return the notes
+	 */
+	synchronized List<String> asList() {
+		if (view == null) {
+			view = new AbstractList<String>() {
+				@Override
+				public String get(int index) {
+					return NoteLog.this.get(index);
+				}
+
+				@Override
+				public int size() {
+					return NoteLog.this.size();
+				}
+			};
+		}
+		return view;
+	}
+
+	/**
+	 * Returns the notes list, as render does, if this log has the given number
+	 * of notes, so a copy with that many notes can share it
+	 *
+	 * @param expected is the number of notes the copy has
+	 * @return the notes list, or null if notes were added since the copy
+	 */
+	private synchronized String renderIfSize(int expected) {
+		return size == expected ? render() : null;
+	}
+
+	/**
+	 * Returns the notes as an array, as toArray does, if this log has the given
+	 * number of notes, so a copy with that many notes can share it
+	 *
+	 * @param expected is the number of notes the copy has
+	 * @return the notes, or null if notes were added since the copy
+	 */
+	private synchronized String[] toArrayIfSize(int expected) {
+		return size == expected ? toArray() : null;
+	}
+
+	/**
+	 * Gives a copy chunks of its own before a note is added to it, since the log
+	 * it was copied from may add its own notes at the same positions. Full
+	 * chunks are never written again, so they're still shared.
+	 */
+	private synchronized void ownChunks() {
+		String[][] own = new String[chunks.length][];
+		int full = size / CHUNK_SIZE;
+		System.arraycopy(chunks, 0, own, 0, full);
+		if (size % CHUNK_SIZE != 0) {
+			own[full] = chunks[full].clone();
+		}
+		chunks = own;
+		source = null;
+	}
+
+	/**
+	 * Returns the builder holding the notes list, building it the first time
+	 *
+	 * @return the notes list
+	 */
+	private synchronized StringBuilder rendered() {
+		if (rendered == null) {
+			StringBuilder builder = new StringBuilder();
+			appendTo(builder);
+			rendered = builder;
+		}
+		return rendered;
+	}
+
+	/**
+	 * Appends one note's line of the notes list to a builder
+	 *
+	 * @param builder is the builder to append to
+	 * @param note    is the note
+	 */
+	private static void appendNote(StringBuilder builder, String note) {
+		builder.append("- ").append(note).append('\n');
+	}
+}
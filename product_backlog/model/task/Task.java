@@ -1,6 +1,9 @@
 package edu.ncsu.csc216.product_backlog.model.task;
 
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import edu.ncsu.csc216.product_backlog.model.command.Command;
 import edu.ncsu.csc216.product_backlog.model.command.Command.CommandValue;
@@ -8,38 +11,21 @@ import edu.ncsu.csc216.product_backlog.model.command.Command.CommandValue;
 /**
  * This class controls the task information. Tasks will be placed under Product
  * objects and handled in BacklogManager
+ *
+ * An update claims the task through its version stamp, which is odd while the
+ * update runs, and holds the task's monitor while it does. The copy
+ * constructor first reads the task without locking and keeps what it read if
+ * the stamp was even and didn't move, and otherwise copies it holding the
+ * monitor, so a copy is always a whole version of the task.
  */
 public class Task {
 
 	/**
-	 * The backlog state
+	 * The state objects, indexed by the ordinal of the State they act for. They
+	 * hold no fields, so every task shares the same six.
 	 */
-	private final BacklogState backlogState = new BacklogState();
-
-	/**
-	 * The owned state
-	 */
-	private final OwnedState ownedState = new OwnedState();
-
-	/**
-	 * The processing state
-	 */
-	private final ProcessingState processingState = new ProcessingState();
-
-	/**
-	 * The verifying state
-	 */
-	private final VerifyingState verifyingState = new VerifyingState();
-
-	/**
-	 * The done state
-	 */
-	private final DoneState doneState = new DoneState();
-
-	/**
-	 * The rejected state
-	 */
-	private final RejectedState rejectedState = new RejectedState();
+	private static final TaskState[] TASK_STATES = { new BacklogState(), new OwnedState(), new ProcessingState(),
+			new VerifyingState(), new DoneState(), new RejectedState() };
 
 	/** The task's ID */
 	private int taskId;
@@ -47,8 +33,8 @@ public class Task {
 	/** The task's title */
 	private String title;
 
-	/** The current TaskState of the Task */
-	private TaskState currentState;
+	/** The current state of the Task */
+	private State currentState;
 
 	/** The type of Task */
 	private Type type;
@@ -62,8 +48,18 @@ public class Task {
 	/** A boolean representing whether the task is verified */
 	private boolean isVerified;
 
-	/** An Arraylist of all the task's notes */
-	private ArrayList<String> notes = new ArrayList<String>();
+	/** All of the task's notes */
+	private NoteLog notes = new NoteLog();
+
+	/**
+	 * Twice the task's version, plus one while an update holds the task. Kept as
+	 * a plain int with a field updater so tasks don't each carry an atomic object.
+	 */
+	private volatile int stamp;
+
+	/** Compares and sets the stamp of a task */
+	private static final AtomicIntegerFieldUpdater<Task> STAMP = AtomicIntegerFieldUpdater.newUpdater(Task.class,
+			"stamp");
 
 	/** Represents the "Backlog" status. */
 	public static final String BACKLOG_NAME = "Backlog";
@@ -110,6 +106,35 @@ public class Task {
 	/** Represents an "Unowned" status. */
 	public static final String UNOWNED = "unowned";
 
+	/**
+	 * The state each command moves a task to from each state, indexed by the
+	 * state's and the command's ordinals. A null entry means the command isn't
+	 * allowed in that state.
+	 */
+	private static final State[][] TRANSITIONS = new State[State.values().length][CommandValue.values().length];
+
+	static {
+		allow(State.BACKLOG, CommandValue.CLAIM, State.OWNED);
+		allow(State.BACKLOG, CommandValue.REJECT, State.REJECTED);
+
+		allow(State.OWNED, CommandValue.PROCESS, State.PROCESSING);
+		allow(State.OWNED, CommandValue.REJECT, State.REJECTED);
+		allow(State.OWNED, CommandValue.BACKLOG, State.BACKLOG);
+
+		allow(State.PROCESSING, CommandValue.PROCESS, State.PROCESSING);
+		allow(State.PROCESSING, CommandValue.VERIFY, State.VERIFYING);
+		allow(State.PROCESSING, CommandValue.COMPLETE, State.DONE);
+		allow(State.PROCESSING, CommandValue.BACKLOG, State.BACKLOG);
+
+		allow(State.VERIFYING, CommandValue.COMPLETE, State.DONE);
+		allow(State.VERIFYING, CommandValue.PROCESS, State.PROCESSING);
+
+		allow(State.DONE, CommandValue.PROCESS, State.PROCESSING);
+		allow(State.DONE, CommandValue.BACKLOG, State.BACKLOG);
+
+		allow(State.REJECTED, CommandValue.BACKLOG, State.BACKLOG);
+	}
+
 	/**
 	 * Constructs a Task from the provided id, title, creator, and note
 	 * 
@@ -140,7 +165,7 @@ public class Task {
 			throw new IllegalArgumentException("Invalid task information.");
 		}
 
-		this.currentState = backlogState;
+		this.currentState = State.BACKLOG;
 
 		setTaskId(id);
 
@@ -156,6 +181,58 @@ public class Task {
 
 	}
 
+	/**
+	 * Constructs a copy of a task as it is now, including its notes and version.
+	 * The fields are read first without locking and kept if the version didn't
+	 * move meanwhile. Otherwise they're read again holding the task's monitor,
+	 * which waits for any update that's running. Later changes to either task
+	 * don't show in the other, so the copy can be read without holding any lock.
+	 * 
+	 * @param task is the task to copy
+	 */
+	public Task(Task task) {
+		this.taskId = task.taskId;
+		this.title = task.title;
+		this.type = task.type;
+		this.creator = task.creator;
+
+		int seen = task.stamp;
+		if ((seen & 1) == 0) {
+			copyState(task);
+			// Keeps the reads above from moving after the second read of the stamp
+			VarHandle.acquireFence();
+			if (task.stamp == seen) {
+				this.stamp = seen;
+				return;
+			}
+		}
+		while (true) {
+			synchronized (task) {
+				// Updates hold the monitor, so the task can't change while it's held
+				seen = task.stamp;
+				if ((seen & 1) == 0) {
+					copyState(task);
+					this.stamp = seen;
+					return;
+				}
+			}
+			// Claimed by a caller that doesn't hold the monitor
+			Thread.yield();
+		}
+	}
+
+	/**
+	 * Copies the fields an update can change from another task
+	 * 
+	 * @param task is the task to copy
+	 */
+	private void copyState(Task task) {
+		this.currentState = task.currentState;
+		this.owner = task.owner;
+		this.isVerified = task.isVerified;
+		this.notes = task.notes.copy();
+	}
+
 	/**
 	 * Constructs a Task by providing all field values
 	 * 
@@ -170,8 +247,29 @@ public class Task {
 	 */
 	public Task(int id, String state, String title, String type, String creator, String owner, String verified,
 			ArrayList<String> notes) {
+		this(id, stateFromName(state), title, typeFromShortName(type), creator, owner, verifiedFromString(verified),
+				notes);
+	}
+
+	/**
+	 * Constructs a Task by providing all field values, with the state and type
+	 * already parsed
+	 * 
+	 * @param id       is the task's id
+	 * @param state    is the task's current state
+	 * @param title    is the title of the task
+	 * @param type     is the type of task
+	 * @param creator  is the creator of the task
+	 * @param owner    is the current owner of the the task
+	 * @param verified is whether the task is verified, or null if the file said
+	 *                 neither true nor false, in which case it isn't verified
+	 *                 but isn't checked against the state either
+	 * @param notes    are any previous notes of the task
+	 */
+	public Task(int id, State state, String title, Type type, String creator, String owner, Boolean verified,
+			ArrayList<String> notes) {
 
-		if (type == null || "".equals(type)) {
+		if (state == null || type == null) {
 			throw new IllegalArgumentException("Invalid task information.");
 		}
 
@@ -183,36 +281,22 @@ public class Task {
 			throw new IllegalArgumentException("Invalid task information.");
 		}
 
-		// Throw exception if state isn't a valid type of state
-
-		if (state == null || !(state.equals(BACKLOG_NAME) || (state.equals(OWNED_NAME) || state.equals(PROCESSING_NAME)
-				|| state.equals(VERIFYING_NAME) || state.equals(DONE_NAME) || state.equals(REJECTED_NAME)))) {
-			throw new IllegalArgumentException("Invalid task information.");
-		}
-
-		// Throw if invalid type information
-		if (!(type.equals(T_FEATURE) || type.equals(T_BUG) || type.equals(T_TECHNICAL_WORK)
-				|| type.equals(T_KNOWLEDGE_ACQUISITION))) {
+		// Owner can't be null or ""
+		if (owner == null || "".equals(owner)) {
 			throw new IllegalArgumentException("Invalid task information.");
 		}
 
 		// If unowned and not in rejected or backlog state
-		if ((state.equals(OWNED_NAME) || state.equals(PROCESSING_NAME) || state.equals(VERIFYING_NAME)
-				|| state.equals(DONE_NAME)) && owner.equals(UNOWNED)) {
-			throw new IllegalArgumentException("Invalid task information.");
-		}
-
-		// Owner can't be null or "" (
-		if (owner == null || "".equals(owner)) {
+		if ((state == State.OWNED || state == State.PROCESSING || state == State.VERIFYING || state == State.DONE)
+				&& owner.equals(UNOWNED)) {
 			throw new IllegalArgumentException("Invalid task information.");
 		}
 
-		if (state.equals(DONE_NAME) && ((type.equals(T_FEATURE) || type.equals(T_BUG) || type.equals(T_TECHNICAL_WORK))
-				&& "false".equals(verified))) {
+		if (state == State.DONE && type != Type.KNOWLEDGE_ACQUISITION && Boolean.FALSE.equals(verified)) {
 			throw new IllegalArgumentException("Invalid task information.");
 		}
 
-		if (state.equals(DONE_NAME) && "true".equals(verified) && type.equals(T_KNOWLEDGE_ACQUISITION)) {
+		if (state == State.DONE && Boolean.TRUE.equals(verified) && type == Type.KNOWLEDGE_ACQUISITION) {
 			throw new IllegalArgumentException("Invalid task information.");
 		}
 
@@ -220,26 +304,71 @@ public class Task {
 			throw new IllegalArgumentException("Invalid task information.");
 		}
 
-		if (verified == null || "".equals(creator)) {
-			throw new IllegalArgumentException("Invalid task information.");
-		}
-
 		setTaskId(id);
-		setState(state);
+		this.currentState = state;
 		setTitle(title);
-		setTypeFromString(type);
+		setType(type);
 		setCreator(creator);
 		setOwner(owner);
 		setNotes(notes);
-		
-		if("true".equals(verified)) {
-			setVerified(true);
+		setVerified(Boolean.TRUE.equals(verified));
+	}
+
+	/**
+	 * Finds the state with the given name
+	 * 
+	 * @param stateName is the name of the state
+	 * @return the state
+	 * @throws IllegalArgumentException if there isn't a state with that name
+	 */
+	private static State stateFromName(String stateName) {
+		State[] states = State.values();
+		for (int i = 0; i < states.length; i++) {
+			if (states[i].getStateName().equals(stateName)) {
+				return states[i];
+			}
 		}
-		
-		if("false".equals(verified)) {
-			setVerified(false);
+		throw new IllegalArgumentException("Invalid task information.");
+	}
+
+	/**
+	 * Finds the type with the given short name
+	 * 
+	 * @param typeString is the short name of the type
+	 * @return the type
+	 * @throws IllegalArgumentException if there isn't a type with that short name
+	 */
+	private static Type typeFromShortName(String typeString) {
+		if (T_FEATURE.equals(typeString)) {
+			return Type.FEATURE;
+		} else if (T_BUG.equals(typeString)) {
+			return Type.BUG;
+		} else if (T_TECHNICAL_WORK.equals(typeString)) {
+			return Type.TECHNICAL_WORK;
+		} else if (T_KNOWLEDGE_ACQUISITION.equals(typeString)) {
+			return Type.KNOWLEDGE_ACQUISITION;
 		}
+		throw new IllegalArgumentException("Invalid task information.");
+	}
 
+	/**
+	 * Reads whether a task is verified. Anything other than "true" or "false" is
+	 * not verified, and isn't checked against the task's state.
+	 * 
+	 * @param verified is "true" or "false"
+	 * @return true or false, or null if verified is neither
+	 * @throws IllegalArgumentException if verified is null
+	 */
+	private static Boolean verifiedFromString(String verified) {
+		if (verified == null) {
+			throw new IllegalArgumentException("Invalid task information.");
+		}
+		if ("true".equals(verified)) {
+			return Boolean.TRUE;
+		} else if ("false".equals(verified)) {
+			return Boolean.FALSE;
+		}
+		return null;
 	}
 
 	/**
@@ -333,12 +462,12 @@ public class Task {
 	}
 
 	/**
-	 * The getter method for notes (returns notes)
+	 * The getter method for notes (returns a read only view of the notes)
 	 * 
 	 * @return the notes
 	 */
-	public ArrayList<String> getNotes() {
-		return notes;
+	public List<String> getNotes() {
+		return notes.asList();
 	}
 
 	/**
@@ -347,7 +476,10 @@ public class Task {
 	 * @param notes the notes to set
 	 */
 	private void setNotes(ArrayList<String> notes) {
-		this.notes = notes;
+		this.notes = new NoteLog();
+		for (int i = 0; i < notes.size(); i++) {
+			this.notes.add(notes.get(i));
+		}
 	}
 
 	/**
@@ -385,74 +517,16 @@ public class Task {
 	 * @return The name of the state.
 	 */
 	public String getStateName() {
-		if (currentState == backlogState) {
-			return BACKLOG_NAME;
-		} else if (currentState == ownedState) {
-			return OWNED_NAME;
-		} else if (currentState == processingState) {
-			return PROCESSING_NAME;
-		} else if (currentState == verifyingState) {
-			return VERIFYING_NAME;
-		} else if (currentState == doneState) {
-			return DONE_NAME;
-		} else if (currentState == rejectedState) {
-			return REJECTED_NAME;
-		} else {
-			return null;
-		}
-
+		return currentState.getStateName();
 	}
 
 	/**
-	 * Sets the state of this object.
+	 * Retrieves the state of this object.
 	 *
-	 * @param state The state to set.
+	 * @return The state of this object.
 	 */
-	private void setState(String state) {
-
-		if (state.equals(DONE_NAME)) {
-			currentState = doneState;
-		}
-
-		if (state.equals(BACKLOG_NAME)) {
-			currentState = backlogState;
-		}
-
-		if (state.equals(OWNED_NAME)) {
-			currentState = ownedState;
-		}
-
-		if (state.equals(PROCESSING_NAME)) {
-			currentState = processingState;
-		}
-
-		if (state.equals(VERIFYING_NAME)) {
-			currentState = verifyingState;
-		}
-
-	}
-
-	/**
-	 * Sets the type based on a string representation.
-	 *
-	 * @param typeString The string representation of the type.
-	 */
-	private void setTypeFromString(String typeString) {
-		if (typeString.equals(T_BUG)) {
-			setType(Type.BUG);
-		}
-
-		if (typeString.equals(T_FEATURE)) {
-			setType(Type.FEATURE);
-		}
-
-		if (typeString.equals(T_TECHNICAL_WORK)) {
-			setType(Type.TECHNICAL_WORK);
-		}
-
-		if (typeString.equals(T_KNOWLEDGE_ACQUISITION)) {
-			setType(Type.KNOWLEDGE_ACQUISITION);
-		}
+	public State getState() {
+		return currentState;
 	}
 
 	/**
@@ -513,18 +587,13 @@ public class Task {
 	}
 
 	/**
-	 * Retrieves the list of notes as a string.
+	 * Retrieves the list of notes as a string. The list is cached, so calling
+	 * this again before the next note is added doesn't rebuild it.
 	 *
 	 * @return The list of notes as a string.
 	 */
 	public String getNotesList() {
-		String notesList = "";
-
-		for (String note : notes) {
-			notesList += "- " + note + '\n';
-		}
-
-		return notesList;
+		return notes.render();
 	}
 
 	/**
@@ -533,13 +602,22 @@ public class Task {
 	 * @return A string representation of this object.
 	 */
 	public String toString() {
-		String taskString = "";
-
-		taskString = "* " + this.getTaskId() + "," + this.getStateName() + "," + this.getTitle() + ","
-				+ this.getTypeShortName() + "," + this.getCreator() + "," + this.getOwner() + "," + this.isVerified()
-				+ '\n' + getNotesList();
+		StringBuilder taskString = new StringBuilder();
+		appendTo(taskString);
+		return taskString.toString();
+	}
 
-		return taskString;
+	/**
+	 * Appends the string representation of this object, as returned by toString,
+	 * to a builder. Lets a caller writing many tasks reuse one builder.
+	 *
+	 * @param builder The builder to append this object to.
+	 */
+	public void appendTo(StringBuilder builder) {
+		builder.append("* ").append(getTaskId()).append(',').append(getStateName()).append(',').append(getTitle())
+				.append(',').append(getTypeShortName()).append(',').append(getCreator()).append(',')
+				.append(getOwner()).append(',').append(isVerified()).append('\n');
+		notes.appendTo(builder);
 	}
 
 	/**
@@ -550,87 +628,108 @@ public class Task {
 	 *                                       between states
 	 */
 	public void update(Command c) throws UnsupportedOperationException {
-		if (this.currentState == backlogState && c.getCommand() != CommandValue.CLAIM
-				&& c.getCommand() != CommandValue.REJECT) {
+		State next = TRANSITIONS[currentState.ordinal()][c.getCommand().ordinal()];
+		if (next == null) {
 			throw new UnsupportedOperationException("Illegal state change");
 		}
 
-		if (this.currentState == ownedState && c.getCommand() != CommandValue.PROCESS
-				&& c.getCommand() != CommandValue.REJECT && c.getCommand() != CommandValue.BACKLOG) {
-			throw new UnsupportedOperationException("Illegal state change");
-		}
-
-		if (this.currentState == processingState && c.getCommand() != CommandValue.PROCESS
-				&& c.getCommand() != CommandValue.VERIFY && c.getCommand() != CommandValue.COMPLETE
-				&& c.getCommand() != CommandValue.BACKLOG) {
-			throw new UnsupportedOperationException("Illegal state change");
-		}
-
-		if (this.currentState == verifyingState && c.getCommand() != CommandValue.COMPLETE
-				&& c.getCommand() != CommandValue.PROCESS) {
-			throw new UnsupportedOperationException("Illegal state change");
-		}
-
-		if (this.currentState == doneState && c.getCommand() != CommandValue.PROCESS
-				&& c.getCommand() != CommandValue.BACKLOG) {
-			throw new UnsupportedOperationException("Illegal state change");
-		}
-
-		if (this.currentState == rejectedState && c.getCommand() != CommandValue.BACKLOG) {
-			throw new UnsupportedOperationException("Illegal state change");
-		}
-
-		if (c.getCommand() == CommandValue.CLAIM) {
-			this.currentState = ownedState;
-			currentState.updateState(c);
-			setState(currentState.getStateName());
-		}
+		TASK_STATES[next.ordinal()].updateState(this, c);
+	}
 
-		if (c.getCommand() == CommandValue.BACKLOG) {
-			this.currentState = backlogState;
-			currentState.updateState(c);
-			setState(currentState.getStateName());
+	/**
+	 * Updates this object based on a given command, if it's still at the expected
+	 * version. Updates to the same task never overlap, and updates to different
+	 * tasks never wait for each other. The task's monitor is held while it
+	 * changes, so copies taken meanwhile wait for it.
+	 *
+	 * @param expectedVersion The version the caller last saw.
+	 * @param c               The command used to update this object.
+	 * @throws TaskConflictException         if the task has changed since that
+	 *                                       version, or is being updated
+	 * @throws UnsupportedOperationException if transition is not a valid transition
+	 *                                       between states
+	 */
+	public synchronized void update(int expectedVersion, Command c) {
+		beginUpdate(expectedVersion);
+		boolean updated = false;
+		try {
+			update(c);
+			updated = true;
+		} finally {
+			endUpdate(updated);
 		}
+	}
 
-		if (c.getCommand() == CommandValue.PROCESS) {
-			this.currentState = processingState;
-			currentState.updateState(c);
-			setState(currentState.getStateName());
-		}
+	/**
+	 * Retrieves the task's version, which goes up by one with each update made
+	 * through beginUpdate and endUpdate.
+	 *
+	 * @return The task's version.
+	 */
+	public int getVersion() {
+		return stamp >>> 1;
+	}
 
-		if (c.getCommand() == CommandValue.VERIFY) {
-			this.currentState = verifyingState;
-			currentState.updateState(c);
-			setState(currentState.getStateName());
+	/**
+	 * Claims the task for an update, if it's still at the expected version and
+	 * nobody else holds it. The caller makes its changes, then must call
+	 * endUpdate. Callers should hold the task's monitor from before this until
+	 * after endUpdate, so copies wait for the update instead of retrying.
+	 *
+	 * @param expectedVersion The version the caller last saw.
+	 * @throws TaskConflictException if the task has changed since that version, or
+	 *                               is being updated
+	 */
+	public void beginUpdate(int expectedVersion) {
+		int expected = expectedVersion << 1;
+		if (expectedVersion < 0 || !STAMP.compareAndSet(this, expected, expected + 1)) {
+			throw new TaskConflictException(taskId, expectedVersion, getVersion());
 		}
+	}
 
-		if (c.getCommand() == CommandValue.COMPLETE) {
-			this.currentState = doneState;
-			currentState.updateState(c);
-			setState(currentState.getStateName());
-		}
+	/**
+	 * Releases a task claimed with beginUpdate.
+	 *
+	 * @param updated Whether the task was changed, which moves it to the next
+	 *                version.
+	 */
+	public void endUpdate(boolean updated) {
+		int held = stamp;
+		stamp = updated ? held + 1 : held - 1;
+	}
 
-		if (c.getCommand() == CommandValue.REJECT) {
-			this.currentState = rejectedState;
-			currentState.updateState(c);
-			setState(currentState.getStateName());
-		}
+	/**
+	 * Finds the state a command moves a task to from a given state, without
+	 * changing any task.
+	 *
+	 * @param from    The state the command is run in.
+	 * @param command The command.
+	 * @return The state the task would move to, or null if the command isn't
+	 *         allowed in that state.
+	 */
+	public static State getNextState(State from, CommandValue command) {
+		return TRANSITIONS[from.ordinal()][command.ordinal()];
+	}
 
+	/**
+	 * Adds a transition to the table
+	 *
+	 * @param from    The state the command is run in.
+	 * @param command The command.
+	 * @param to      The state the command moves the task to.
+	 */
+	private static void allow(State from, CommandValue command, State to) {
+		TRANSITIONS[from.ordinal()][command.ordinal()] = to;
 	}
 
 	/**
-	 * Retrieves an array of notes for the task.
+	 * Retrieves an array of notes for the task. The same array is returned until
+	 * the next note is added, so it must not be changed.
 	 *
 	 * @return An array of notes.
 	 */
 	public String[] getNotesArray() {
-		String[] notesArray = new String[notes.size()];
-
-		for (int i = 0; i < notes.size(); i++) {
-			notesArray[i] = notes.get(i);
-		}
-
-		return notesArray;
+		return notes.toArray();
 	}
 
 	/**
@@ -645,11 +744,12 @@ public class Task {
 		 * Update the Task based on the given Command An UnsupportedOperationException
 		 * is thrown if the Command is not a is not a valid action for the given state.
 		 * 
-		 * @param c Command describing the action that will update the Task state.
+		 * @param task Task to update.
+		 * @param c    Command describing the action that will update the Task state.
 		 * @throws UnsupportedOperationException if the Command is not a valid action
 		 *                                       for the given state.
 		 */
-		void updateState(Command c);
+		void updateState(Task task, Command c);
 
 		/**
 		 * Returns the name of the current state as a String.
@@ -664,17 +764,18 @@ public class Task {
 	 * This class controls the task state when the user wants the state to be
 	 * "Backlog"
 	 */
-	private final class BacklogState implements TaskState {
+	private static final class BacklogState implements TaskState {
 
 		/**
 		 * This method updates the state for task
 		 * 
-		 * @param c is the command used to change the state
+		 * @param task is the task to update
+		 * @param c    is the command used to change the state
 		 */
-		public void updateState(Command c) {
-			currentState = backlogState;
-			setOwner(UNOWNED);
-			addNoteToList(c.getNoteText());
+		public void updateState(Task task, Command c) {
+			task.currentState = State.BACKLOG;
+			task.setOwner(UNOWNED);
+			task.addNoteToList(c.getNoteText());
 		}
 
 		/**
@@ -691,17 +792,18 @@ public class Task {
 	 * This class controls the task state when the user wants the state to be
 	 * "Owned"
 	 */
-	private final class OwnedState implements TaskState {
+	private static final class OwnedState implements TaskState {
 
 		/**
 		 * This method updates the state for task
 		 * 
-		 * @param c is the command used to change the state
+		 * @param task is the task to update
+		 * @param c    is the command used to change the state
 		 */
-		public void updateState(Command c) {
-			currentState = ownedState;
-			setOwner(c.getOwner());
-			addNoteToList(c.getNoteText());
+		public void updateState(Task task, Command c) {
+			task.currentState = State.OWNED;
+			task.setOwner(c.getOwner());
+			task.addNoteToList(c.getNoteText());
 		}
 
 		/**
@@ -718,16 +820,17 @@ public class Task {
 	 * This class controls the task state when the user wants the state to be
 	 * "Verifying"
 	 */
-	private final class VerifyingState implements TaskState {
+	private static final class VerifyingState implements TaskState {
 
 		/**
 		 * This method updates the state for task
 		 * 
-		 * @param c is the command used to change the state
+		 * @param task is the task to update
+		 * @param c    is the command used to change the state
 		 */
-		public void updateState(Command c) {
-			currentState = verifyingState;
-			addNoteToList(c.getNoteText());
+		public void updateState(Task task, Command c) {
+			task.currentState = State.VERIFYING;
+			task.addNoteToList(c.getNoteText());
 		}
 
 		/**
@@ -744,16 +847,17 @@ public class Task {
 	 * This class controls the task state when the user wants the state to be
 	 * "Processing"
 	 */
-	private final class ProcessingState implements TaskState {
+	private static final class ProcessingState implements TaskState {
 
 		/**
 		 * This method updates the state for task
 		 * 
-		 * @param c is the command used to change the state
+		 * @param task is the task to update
+		 * @param c    is the command used to change the state
 		 */
-		public void updateState(Command c) {
-			currentState = processingState;
-			addNoteToList(c.getNoteText());
+		public void updateState(Task task, Command c) {
+			task.currentState = State.PROCESSING;
+			task.addNoteToList(c.getNoteText());
 
 		}
 
@@ -770,16 +874,17 @@ public class Task {
 	/**
 	 * This class controls the task state when the user wants the state to be "Done"
 	 */
-	private final class DoneState implements TaskState {
+	private static final class DoneState implements TaskState {
 
 		/**
 		 * This method updates the state for task
 		 * 
-		 * @param c is the command used to change the state
+		 * @param task is the task to update
+		 * @param c    is the command used to change the state
 		 */
-		public void updateState(Command c) {
-			currentState = doneState;
-			addNoteToList(c.getNoteText());
+		public void updateState(Task task, Command c) {
+			task.currentState = State.DONE;
+			task.addNoteToList(c.getNoteText());
 		}
 
 		/**
@@ -796,17 +901,18 @@ public class Task {
 	 * This class controls the task state when the user wants the state to be
 	 * "Rejected"
 	 */
-	private final class RejectedState implements TaskState {
+	private static final class RejectedState implements TaskState {
 
 		/**
 		 * This method updates the state for task
 		 * 
-		 * @param c is the command used to change the state
+		 * @param task is the task to update
+		 * @param c    is the command used to change the state
 		 */
-		public void updateState(Command c) {
-			currentState = rejectedState;
-			setOwner(UNOWNED);
-			addNoteToList(c.getNoteText());
+		public void updateState(Task task, Command c) {
+			task.currentState = State.REJECTED;
+			task.setOwner(UNOWNED);
+			task.addNoteToList(c.getNoteText());
 		}
 
 		/**
@@ -819,6 +925,56 @@ public class Task {
 		}
 	}
 
+	/** The possible states of tasks */
+	public enum State {
+
+		/**
+		 * This is the backlog state
+		 */
+		BACKLOG(BACKLOG_NAME),
+		/**
+		 * This is the owned state
+		 */
+		OWNED(OWNED_NAME),
+		/**
+		 * This is the processing state
+		 */
+		PROCESSING(PROCESSING_NAME),
+		/**
+		 * This is the verifying state
+		 */
+		VERIFYING(VERIFYING_NAME),
+		/**
+		 * This is the done state
+		 */
+		DONE(DONE_NAME),
+		/**
+		 * This is the rejected state
+		 */
+		REJECTED(REJECTED_NAME);
+
+		/** The name of the state */
+		private final String stateName;
+
+		/**
+		 * Creates a state with the given name
+		 * 
+		 * @param stateName is the name of the state
+		 */
+		State(String stateName) {
+			this.stateName = stateName;
+		}
+
+		/**
+		 * Retrieves the name of the state
+		 * 
+		 * @return the name of the state
+		 */
+		public String getStateName() {
+			return stateName;
+		}
+	}
+
 	/** The possible types of tasks */
 	public enum Type {
 
@@ -0,0 +1,38 @@
+package edu.ncsu.csc216.product_backlog.model.task;
+
+/**
+ * Thrown when a task is updated against a version it no longer has, because
+ * someone else changed it first. The caller can get the task again, check the
+ * command still makes sense, and retry with the new version.
+ */
+public class TaskConflictException extends IllegalStateException {
+
+	/** ID used for serialization */
+	private static final long serialVersionUID = 1L;
+
+	/** The task's version when the update was tried */
+	private final int currentVersion;
+
+	/**
+	 * Creates the exception for a task that has moved on from the expected
+	 * version
+	 *
+	 * @param taskId          the ID of the task
+	 * @param expectedVersion the version the caller expected
+	 * @param currentVersion  the task's version when the update was tried
+	 */
+	public TaskConflictException(int taskId, int expectedVersion, int currentVersion) {
+		super("Task " + taskId + " was changed by someone else (expected version " + expectedVersion
+				+ ", found " + currentVersion + ").");
+		this.currentVersion = currentVersion;
+	}
+
+	/**
+	 * Returns the task's version when the update was tried
+	 *
+	 * @return the task's version
+	 */
+	public int getCurrentVersion() {
+		return currentVersion;
+	}
+}
@@ -0,0 +1,718 @@
+package edu.ncsu.csc216.product_backlog.view.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager;
+import edu.ncsu.csc216.product_backlog.model.backlog.BacklogSession;
+import edu.ncsu.csc216.product_backlog.model.backlog.UnsavedChangeException;
+import edu.ncsu.csc216.product_backlog.model.command.Command;
+import edu.ncsu.csc216.product_backlog.model.command.Command.CommandValue;
+import edu.ncsu.csc216.product_backlog.model.task.Task;
+import edu.ncsu.csc216.product_backlog.model.task.Task.Type;
+import edu.ncsu.csc216.product_backlog.model.task.TaskConflictException;
+
+/**
+ * Serves the BacklogManager as a JSON API over HTTP, so the backlog can be
+ * driven by scripts without the GUI. The server only listens on the loopback
+ * address. Each request gets its own BacklogSession, and runs on its own
+ * virtual thread when the JDK has them, or a pooled thread otherwise.
+ *
+ * <pre>
+ * GET    /products                               list the product names
+ * POST   /products                  {"name"}     add a product
+ * DELETE /products/{name}                        delete a product
+ * GET    /products/{name}/tasks                  list a product's tasks
+ * POST   /products/{name}/tasks     {"title", "type", "creator", "note"}
+ * GET    /products/{name}/tasks/{id}             get a task
+ * DELETE /products/{name}/tasks/{id}             delete a task
+ * POST   /products/{name}/tasks/{id}/commands
+ *            {"command", "owner", "note", "version"}   run a command on a task
+ * POST   /save                      {"file"}     save every product
+ * POST   /load                      {"file"}     load products from a file
+ * </pre>
+ *
+ * A command with a "version" only runs if the task is still at that version,
+ * and gets a 409 with the task's current version otherwise. Invalid requests
+ * get a 400 and an "error" message.
+ *
+ * A web page can still send requests to a loopback port, so requests that
+ * could come from a browser are turned away. A request with an Origin header
+ * or a Host other than the loopback address gets a 403, and a request body
+ * must be sent as application/json, which a page can't do without a preflight
+ * that the server never answers. The files for /save and /load are named
+ * relative to the server's data directory, and have to be inside it.
+ */
+public class BacklogHttpServer {
+
+	/** The port the server listens on when none is given */
+	public static final int DEFAULT_PORT = 8216;
+
+	/** How many connections can wait to be accepted */
+	private static final int CONNECTION_BACKLOG = 1024;
+
+	/**
+	 * The JDK server's setting for turning off Nagle's algorithm. It writes a
+	 * response's headers and body separately, so with Nagle on each response
+	 * waits for a delayed ACK, which is about 40 ms.
+	 */
+	private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+	/** The JDK's HTTP server */
+	private final HttpServer server;
+
+	/** Runs the requests */
+	private final ExecutorService executor;
+
+	/** The backlog the requests work on */
+	private final BacklogManager manager;
+
+	/** The directory files can be saved to and loaded from, as a real path */
+	private final Path dataDirectory;
+
+	/**
+	 * Creates a server on the loopback address that saves and loads files in
+	 * the working directory. It doesn't take requests until it's started.
+	 *
+	 * @param port is the port to listen on, or 0 for any free port
+	 * @throws IllegalArgumentException if the port can't be opened
+	 */
+	public BacklogHttpServer(int port) {
+		this(port, ".");
+	}
+
+	/**
+	 * Creates a server on the loopback address. It doesn't take requests until
+	 * it's started.
+	 *
+	 * @param port          is the port to listen on, or 0 for any free port
+	 * @param dataDirectory is the directory files can be saved to and loaded
+	 *                      from
+	 * @throws IllegalArgumentException if the directory doesn't exist or the port
+	 *                                  can't be opened
+	 */
+	public BacklogHttpServer(int port, String dataDirectory) {
+		try {
+			this.dataDirectory = Paths.get(dataDirectory).toRealPath();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Invalid data directory: " + dataDirectory);
+		}
+		if (!Files.isDirectory(this.dataDirectory)) {
+			throw new IllegalArgumentException("Invalid data directory: " + dataDirectory);
+		}
+		this.manager = BacklogManager.getInstance();
+		this.executor = newRequestExecutor();
+		if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+			System.setProperty(NO_DELAY_PROPERTY, "true");
+		}
+		try {
+			this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+					CONNECTION_BACKLOG);
+		} catch (IOException e) {
+			executor.shutdown();
+			throw new IllegalArgumentException("Unable to open port " + port + ".");
+		}
+		server.setExecutor(executor);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				handleRequest(exchange);
+			}
+		});
+	}
+
+	/**
+	 * Starts taking requests
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Stops taking requests and waits up to a second for the ones running to
+	 * finish
+	 */
+	public void stop() {
+		server.stop(1);
+		executor.shutdown();
+	}
+
+	/**
+	 * Returns the port the server is listening on
+	 *
+	 * @return the port
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Starts a server without any GUI. Takes an optional port, an optional
+	 * products file to load first, which can be "" for none, and an optional data
+	 * directory, which is the working directory if it isn't given.
+	 *
+	 * @param args are the port, the products file and the data directory
+	 */
+	public static void main(String[] args) {
+		if (args.length > 3) {
+			System.err.println("Usage: BacklogHttpServer [port] [products file] [data directory]");
+			System.exit(1);
+		}
+
+		int port = DEFAULT_PORT;
+		if (args.length > 0) {
+			try {
+				port = Integer.parseInt(args[0]);
+			} catch (NumberFormatException e) {
+				System.err.println("Invalid port: " + args[0]);
+				System.exit(1);
+			}
+		}
+		if (args.length > 1 && !args[1].isEmpty()) {
+			BacklogManager.getInstance().loadFromFile(args[1]);
+		}
+
+		BacklogHttpServer backlogServer = new BacklogHttpServer(port, args.length > 2 ? args[2] : ".");
+		backlogServer.start();
+		System.out.println("Listening on http://localhost:" + backlogServer.getPort() + "/");
+	}
+
+	/**
+	 * Creates the executor requests run on. Uses a virtual thread per request if
+	 * the JDK has them, and otherwise a pool of daemon threads that grows with
+	 * the number of requests running at once.
+	 *
+	 * @return the executor
+	 */
+	private static ExecutorService newRequestExecutor() {
+		try {
+			Method virtualThreads = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) virtualThreads.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "BacklogHttpServer request");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Runs a request and sends its response. Errors are sent back as JSON with a
+	 * status that says what went wrong.
+	 *
+	 * @param exchange is the request and its response
+	 * @throws IOException if the response can't be sent
+	 */
+	private void handleRequest(HttpExchange exchange) throws IOException {
+		int status = 200;
+		StringBuilder body = new StringBuilder();
+
+		try {
+			status = route(exchange, body);
+		} catch (RequestException e) {
+			status = e.getStatus();
+			body.setLength(0);
+			Json.appendString(body.append("{\"error\":"), e.getMessage()).append('}');
+		} catch (TaskConflictException e) {
+			status = 409;
+			body.setLength(0);
+			Json.appendString(body.append("{\"error\":"), e.getMessage());
+			body.append(",\"version\":").append(e.getCurrentVersion()).append('}');
+		} catch (UnsavedChangeException e) {
+			status = 500;
+			body.setLength(0);
+			Json.appendString(body.append("{\"error\":"), e.getMessage()).append('}');
+		} catch (IllegalArgumentException | UnsupportedOperationException e) {
+			status = 400;
+			body.setLength(0);
+			Json.appendString(body.append("{\"error\":"), e.getMessage()).append('}');
+		} catch (RuntimeException e) {
+			status = 500;
+			body.setLength(0);
+			Json.appendString(body.append("{\"error\":"), String.valueOf(e)).append('}');
+		}
+
+		byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+		OutputStream out = exchange.getResponseBody();
+		try {
+			out.write(bytes);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Finds what a request asks for, runs it, and writes the response body
+	 *
+	 * @param exchange is the request
+	 * @param body     is where the response body goes
+	 * @return the response status
+	 * @throws IOException if the request body can't be read
+	 */
+	private int route(HttpExchange exchange, StringBuilder body) throws IOException {
+		checkSender(exchange);
+		String method = exchange.getRequestMethod();
+		String[] path = splitPath(exchange.getRequestURI().getRawPath());
+
+		if (path.length == 1 && "save".equals(path[0])) {
+			requireMethod(method, "POST");
+			save(getString(readBody(exchange), "file", true), body);
+			return 200;
+		} else if (path.length == 1 && "load".equals(path[0])) {
+			requireMethod(method, "POST");
+			manager.loadFromFile(dataFile(getString(readBody(exchange), "file", true)));
+			appendProducts(body);
+			return 200;
+		} else if (path.length == 0 || !"products".equals(path[0])) {
+			throw new RequestException(404, "Not found.");
+		}
+
+		if (path.length == 1) {
+			if ("GET".equals(method)) {
+				appendProducts(body);
+				return 200;
+			}
+			requireMethod(method, "POST");
+			manager.openSession().addProduct(getString(readBody(exchange), "name", true));
+			appendProducts(body);
+			return 201;
+		}
+
+		BacklogSession session = openProductSession(path[1]);
+		if (path.length == 2) {
+			requireMethod(method, "DELETE");
+			session.deleteProduct();
+			appendProducts(body);
+			return 200;
+		} else if (!"tasks".equals(path[2])) {
+			throw new RequestException(404, "Not found.");
+		}
+
+		if (path.length == 3) {
+			if ("GET".equals(method)) {
+				appendTasks(session, body);
+				return 200;
+			}
+			requireMethod(method, "POST");
+			HashMap<String, Object> request = readBody(exchange);
+			int newId = session.addTaskToProduct(getString(request, "title", true),
+					parseType(getString(request, "type", true)), getString(request, "creator", true),
+					getString(request, "note", true));
+			appendTask(session, newId, body);
+			return 201;
+		}
+
+		int id = parseId(path[3]);
+		if (path.length == 4) {
+			if ("GET".equals(method)) {
+				appendTask(session, id, body);
+				return 200;
+			}
+			requireMethod(method, "DELETE");
+			getTask(session, id);
+			session.deleteTaskById(id);
+			return 204;
+		} else if (path.length == 5 && "commands".equals(path[4])) {
+			requireMethod(method, "POST");
+			executeCommand(session, id, readBody(exchange));
+			appendTask(session, id, body);
+			return 200;
+		}
+
+		throw new RequestException(404, "Not found.");
+	}
+
+	/**
+	 * Runs a command on a task. The command only runs if the task is still at
+	 * the request's version, if it has one.
+	 *
+	 * @param session is the session on the task's product
+	 * @param id      is the task's ID
+	 * @param request is the request body
+	 * @throws RequestException         if there's no task with that ID
+	 * @throws TaskConflictException    if the task isn't at the request's version
+	 * @throws IllegalArgumentException if the command is invalid
+	 */
+	private void executeCommand(BacklogSession session, int id, HashMap<String, Object> request) {
+		getTask(session, id);
+
+		CommandValue value;
+		try {
+			value = CommandValue.valueOf(getString(request, "command", true).toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid command");
+		}
+		Command c = new Command(value, getString(request, "owner", false), getString(request, "note", true));
+
+		Object version = request.get("version");
+		if (version == null) {
+			session.executeCommand(id, c);
+		} else if (version instanceof Long && (Long) version >= 0 && (Long) version <= Integer.MAX_VALUE) {
+			session.executeCommand(id, ((Long) version).intValue(), c);
+		} else {
+			throw new IllegalArgumentException("Invalid version.");
+		}
+	}
+
+	/**
+	 * Saves every product to a file, and waits for the file to be written. A
+	 * product with tasks is needed, since there's nothing worth saving
+	 * otherwise.
+	 *
+	 * @param fileName is the file to save to, in the data directory
+	 * @param body     is where the response body goes
+	 * @throws RequestException         if the file isn't in the data directory
+	 * @throws IllegalArgumentException if there's nothing to save, or the file
+	 *                                  can't be written
+	 */
+	private void save(String fileName, StringBuilder body) {
+		String file = dataFile(fileName);
+		String[] products = manager.getProductList();
+		BacklogSession session = manager.openSession();
+
+		for (int i = 0; i < products.length; i++) {
+			try {
+				session.loadProduct(products[i]);
+			} catch (IllegalArgumentException e) {
+				continue;
+			}
+			String[][] tasks = session.getTasksAsArray();
+			if (tasks.length > 0) {
+				session.saveToFile(file);
+				manager.flushSaves();
+				Json.appendString(body.append("{\"file\":"), fileName).append('}');
+				return;
+			}
+		}
+
+		throw new IllegalArgumentException("Unable to save file.");
+	}
+
+	/**
+	 * Finds a file named in a request in the data directory. The name can't
+	 * lead out of the directory, either through ".." or an absolute path or
+	 * through a link.
+	 *
+	 * @param fileName is the name from the request
+	 * @return the file's path
+	 * @throws RequestException if the file isn't in the data directory
+	 */
+	private String dataFile(String fileName) {
+		Path file = dataDirectory.resolve(fileName).normalize();
+		try {
+			Path parent = file.getParent();
+			if (parent != null && parent.toRealPath().startsWith(dataDirectory)
+					&& (!Files.exists(file) || file.toRealPath().getParent().startsWith(dataDirectory))) {
+				return file.toString();
+			}
+		} catch (IOException e) {
+			// A directory that doesn't exist isn't in the data directory either
+		}
+		throw new RequestException(403, "The file must be in the data directory.");
+	}
+
+	/**
+	 * Opens a session on a product
+	 *
+	 * @param productName is the product's name
+	 * @return the session
+	 * @throws RequestException if there's no product with that name
+	 */
+	private BacklogSession openProductSession(String productName) {
+		BacklogSession session = manager.openSession();
+		try {
+			session.loadProduct(productName);
+		} catch (IllegalArgumentException e) {
+			throw new RequestException(404, e.getMessage());
+		}
+		return session;
+	}
+
+	/**
+	 * Finds a task in a session's product
+	 *
+	 * @param session is the session
+	 * @param id      is the task's ID
+	 * @return the task
+	 * @throws RequestException if there's no task with that ID
+	 */
+	private static Task getTask(BacklogSession session, int id) {
+		Task task = session.getTaskById(id);
+		if (task == null) {
+			throw new RequestException(404, "Task not available.");
+		}
+		return task;
+	}
+
+	/**
+	 * Writes the product names as a JSON array
+	 *
+	 * @param body is where the response body goes
+	 */
+	private void appendProducts(StringBuilder body) {
+		String[] products = manager.getProductList();
+
+		body.append('[');
+		for (int i = 0; i < products.length; i++) {
+			if (i > 0) {
+				body.append(',');
+			}
+			Json.appendString(body, products[i]);
+		}
+		body.append(']');
+	}
+
+	/**
+	 * Writes a product's tasks as a JSON array, without their notes
+	 *
+	 * @param session is the session on the product
+	 * @param body    is where the response body goes
+	 */
+	private static void appendTasks(BacklogSession session, StringBuilder body) {
+		String[][] tasks = session.getTasksAsArray();
+
+		body.append('[');
+		for (int i = 0; i < tasks.length; i++) {
+			if (i > 0) {
+				body.append(',');
+			}
+			body.append("{\"id\":").append(tasks[i][0]);
+			Json.appendString(body.append(",\"state\":"), tasks[i][1]);
+			Json.appendString(body.append(",\"type\":"), tasks[i][2]);
+			Json.appendString(body.append(",\"title\":"), tasks[i][3]).append('}');
+		}
+		body.append(']');
+	}
+
+	/**
+	 * Writes a task as a JSON object. The task is a copy of one whole version,
+	 * so the version always matches the rest of what's written.
+	 *
+	 * @param session is the session on the task's product
+	 * @param id      is the task's ID
+	 * @param body    is where the response body goes
+	 * @throws RequestException if there's no task with that ID
+	 */
+	private static void appendTask(BacklogSession session, int id, StringBuilder body) {
+		Task task = getTask(session, id);
+
+		body.append("{\"id\":").append(task.getTaskId());
+		body.append(",\"version\":").append(task.getVersion());
+		Json.appendString(body.append(",\"state\":"), task.getStateName());
+		Json.appendString(body.append(",\"type\":"), task.getTypeLongName());
+		Json.appendString(body.append(",\"title\":"), task.getTitle());
+		Json.appendString(body.append(",\"creator\":"), task.getCreator());
+		Json.appendString(body.append(",\"owner\":"), task.getOwner());
+		body.append(",\"verified\":").append(task.isVerified());
+		Json.appendStrings(body.append(",\"notes\":"), task.getNotes()).append('}');
+	}
+
+	/**
+	 * Finds the task type with the given name, either as it's shown (like
+	 * "Technical Work") or as it's written in code (like "TECHNICAL_WORK")
+	 *
+	 * @param typeName is the type's name
+	 * @return the type
+	 * @throws IllegalArgumentException if there's no type with that name
+	 */
+	private static Type parseType(String typeName) {
+		Type[] types = Type.values();
+		String[] longNames = { Task.FEATURE_NAME, Task.BUG_NAME, Task.TECHNICAL_WORK_NAME,
+				Task.KNOWLEDGE_ACQUISITION_NAME };
+
+		for (int i = 0; i < types.length; i++) {
+			if (types[i].name().equalsIgnoreCase(typeName) || longNames[i].equalsIgnoreCase(typeName)) {
+				return types[i];
+			}
+		}
+		throw new IllegalArgumentException("Invalid task information.");
+	}
+
+	/**
+	 * Parses a task ID from the path
+	 *
+	 * @param id is the ID
+	 * @return the ID
+	 * @throws RequestException if it isn't a number
+	 */
+	private static int parseId(String id) {
+		try {
+			return Integer.parseInt(id);
+		} catch (NumberFormatException e) {
+			throw new RequestException(404, "Task not available.");
+		}
+	}
+
+	/**
+	 * Splits a path into its decoded segments, ignoring empty ones. Segments are
+	 * decoded as URI paths rather than form data, so a "+" stays a "+", and an
+	 * encoded "/" stays in its segment.
+	 *
+	 * @param rawPath is the path as sent
+	 * @return the segments
+	 * @throws IllegalArgumentException if a segment isn't encoded properly
+	 */
+	private static String[] splitPath(String rawPath) {
+		String[] parts = rawPath.split("/");
+		int count = 0;
+
+		for (int i = 0; i < parts.length; i++) {
+			if (!parts[i].isEmpty()) {
+				parts[count++] = URI.create("/" + parts[i]).getPath().substring(1);
+			}
+		}
+
+		String[] segments = new String[count];
+		System.arraycopy(parts, 0, segments, 0, count);
+		return segments;
+	}
+
+	/**
+	 * Turns away requests that could have come from a web page. Browsers send
+	 * an Origin header with cross-origin requests, and a page that reaches the
+	 * server through a DNS name pointed at the loopback address sends that name
+	 * as the Host.
+	 *
+	 * @param exchange is the request
+	 * @throws RequestException if the request has an Origin header, or a Host
+	 *                          that isn't the loopback address
+	 */
+	private static void checkSender(HttpExchange exchange) {
+		if (exchange.getRequestHeaders().containsKey("Origin")) {
+			throw new RequestException(403, "Requests from web pages aren't allowed.");
+		}
+
+		List<String> hosts = exchange.getRequestHeaders().get("Host");
+		if (hosts == null || hosts.size() != 1 || !isLoopbackHost(hosts.get(0))) {
+			throw new RequestException(403, "Invalid host.");
+		}
+	}
+
+	/**
+	 * Checks if a Host header names the loopback address. Only the names that
+	 * can't be pointed anywhere else are accepted, so nothing is looked up.
+	 *
+	 * @param host is the Host header, with or without a port
+	 * @return true if it names the loopback address
+	 */
+	private static boolean isLoopbackHost(String host) {
+		String name = host.trim();
+		if (name.startsWith("[")) {
+			int end = name.indexOf(']');
+			if (end < 0 || (end + 1 < name.length() && name.charAt(end + 1) != ':')) {
+				return false;
+			}
+			name = name.substring(1, end);
+		} else if (name.indexOf(':') >= 0) {
+			name = name.substring(0, name.indexOf(':'));
+		}
+		return "localhost".equalsIgnoreCase(name) || "127.0.0.1".equals(name) || "::1".equals(name);
+	}
+
+	/**
+	 * Reads a request body as a JSON object. The body must be sent as
+	 * application/json, since a web page can only send other types, like
+	 * text/plain, without asking the server first.
+	 *
+	 * @param exchange is the request
+	 * @return the object's members
+	 * @throws IOException              if the body can't be read
+	 * @throws RequestException         if the body isn't application/json
+	 * @throws IllegalArgumentException if the body isn't a JSON object
+	 */
+	private static HashMap<String, Object> readBody(HttpExchange exchange) throws IOException {
+		String type = exchange.getRequestHeaders().getFirst("Content-Type");
+		if (type == null || !"application/json".equalsIgnoreCase(type.split(";")[0].trim())) {
+			throw new RequestException(415, "The request body must be application/json.");
+		}
+		return Json.parseObject(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Returns a string member of a request body
+	 *
+	 * @param request  is the request body
+	 * @param name     is the member's name
+	 * @param required is whether the member must be there
+	 * @return the string, or null if it isn't there and isn't required
+	 * @throws IllegalArgumentException if the member is required and missing, or
+	 *                                  isn't a string
+	 */
+	private static String getString(HashMap<String, Object> request, String name, boolean required) {
+		Object value = request.get(name);
+		if (value == null && !required) {
+			return null;
+		} else if (!(value instanceof String)) {
+			throw new IllegalArgumentException("Missing or invalid " + name + ".");
+		}
+		return (String) value;
+	}
+
+	/**
+	 * Checks a request uses the method its path expects
+	 *
+	 * @param method   is the request's method
+	 * @param expected is the expected method
+	 * @throws RequestException if the methods don't match
+	 */
+	private static void requireMethod(String method, String expected) {
+		if (!expected.equals(method)) {
+			throw new RequestException(405, "Method not allowed.");
+		}
+	}
+
+	/**
+	 * Thrown while handling a request to send back a particular status
+	 */
+	private static class RequestException extends RuntimeException {
+
+		/** ID used for serialization */
+		private static final long serialVersionUID = 1L;
+
+		/** The response status */
+		private final int status;
+
+		/**
+		 * Creates the exception
+		 *
+		 * @param status  is the response status
+		 * @param message is the error message
+		 */
+		RequestException(int status, String message) {
+			super(message);
+			this.status = status;
+		}
+
+		/**
+		 * Returns the response status
+		 *
+		 * @return the status
+		 */
+		int getStatus() {
+			return status;
+		}
+	}
+}
@@ -0,0 +1,248 @@
+package edu.ncsu.csc216.product_backlog.view.http;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Reads and writes the small amount of JSON the backlog server needs. Request
+ * bodies are flat objects whose values are strings, numbers, booleans or null.
+ */
+final class Json {
+
+	/**
+	 * There are no Json objects, only its static methods
+	 */
+	private Json() {
+
+	}
+
+	/**
+	 * Appends a string to a builder as a quoted JSON string, or null
+	 *
+	 * @param builder is the builder to append to
+	 * @param value   is the string, which may be null
+	 * @return the builder
+	 */
+	static StringBuilder appendString(StringBuilder builder, String value) {
+		if (value == null) {
+			return builder.append("null");
+		}
+
+		builder.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				builder.append("\\\"");
+				break;
+			case '\\':
+				builder.append("\\\\");
+				break;
+			case '\n':
+				builder.append("\\n");
+				break;
+			case '\r':
+				builder.append("\\r");
+				break;
+			case '\t':
+				builder.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					builder.append(String.format("\\u%04x", (int) c));
+				} else {
+					builder.append(c);
+				}
+			}
+		}
+		return builder.append('"');
+	}
+
+	/**
+	 * Appends a list of strings to a builder as a JSON array
+	 *
+	 * @param builder is the builder to append to
+	 * @param values  are the strings
+	 * @return the builder
+	 */
+	static StringBuilder appendStrings(StringBuilder builder, List<String> values) {
+		builder.append('[');
+		for (int i = 0; i < values.size(); i++) {
+			if (i > 0) {
+				builder.append(',');
+			}
+			appendString(builder, values.get(i));
+		}
+		return builder.append(']');
+	}
+
+	/**
+	 * Parses a flat JSON object. Strings come back as String, whole numbers as
+	 * Long, true and false as Boolean, and null as null.
+	 *
+	 * @param text is the JSON text
+	 * @return the object's members, by name
+	 * @throws IllegalArgumentException if the text isn't a flat JSON object
+	 */
+	static HashMap<String, Object> parseObject(String text) {
+		HashMap<String, Object> members = new HashMap<String, Object>();
+		int[] at = { skipSpace(text, 0) };
+
+		expect(text, at, '{');
+		if (peek(text, at) == '}') {
+			at[0]++;
+		} else {
+			while (true) {
+				String name = readString(text, at);
+				expect(text, at, ':');
+				members.put(name, readValue(text, at));
+				if (peek(text, at) == ',') {
+					at[0]++;
+				} else {
+					expect(text, at, '}');
+					break;
+				}
+			}
+		}
+
+		if (skipSpace(text, at[0]) != text.length()) {
+			throw new IllegalArgumentException("Invalid JSON.");
+		}
+		return members;
+	}
+
+	/**
+	 * Reads a string, number, boolean or null
+	 *
+	 * @param text is the JSON text
+	 * @param at   holds the position to read from, and is moved past the value
+	 * @return the value
+	 * @throws IllegalArgumentException if there isn't a value there
+	 */
+	private static Object readValue(String text, int[] at) {
+		char c = peek(text, at);
+		if (c == '"') {
+			return readString(text, at);
+		} else if (text.startsWith("true", at[0])) {
+			at[0] += 4;
+			return Boolean.TRUE;
+		} else if (text.startsWith("false", at[0])) {
+			at[0] += 5;
+			return Boolean.FALSE;
+		} else if (text.startsWith("null", at[0])) {
+			at[0] += 4;
+			return null;
+		}
+
+		int start = at[0];
+		if (c == '-') {
+			at[0]++;
+		}
+		while (at[0] < text.length() && text.charAt(at[0]) >= '0' && text.charAt(at[0]) <= '9') {
+			at[0]++;
+		}
+		try {
+			return Long.valueOf(text.substring(start, at[0]));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid JSON.");
+		}
+	}
+
+	/**
+	 * Reads a quoted string
+	 *
+	 * @param text is the JSON text
+	 * @param at   holds the position to read from, and is moved past the string
+	 * @return the string
+	 * @throws IllegalArgumentException if there isn't a string there
+	 */
+	private static String readString(String text, int[] at) {
+		expect(text, at, '"');
+		StringBuilder value = new StringBuilder();
+
+		while (at[0] < text.length()) {
+			char c = text.charAt(at[0]++);
+			if (c == '"') {
+				return value.toString();
+			} else if (c != '\\') {
+				value.append(c);
+			} else if (at[0] < text.length()) {
+				char escaped = text.charAt(at[0]++);
+				switch (escaped) {
+				case 'n':
+					value.append('\n');
+					break;
+				case 'r':
+					value.append('\r');
+					break;
+				case 't':
+					value.append('\t');
+					break;
+				case 'b':
+					value.append('\b');
+					break;
+				case 'f':
+					value.append('\f');
+					break;
+				case 'u':
+					if (at[0] + 4 > text.length()) {
+						throw new IllegalArgumentException("Invalid JSON.");
+					}
+					try {
+						value.append((char) Integer.parseInt(text.substring(at[0], at[0] + 4), 16));
+					} catch (NumberFormatException e) {
+						throw new IllegalArgumentException("Invalid JSON.");
+					}
+					at[0] += 4;
+					break;
+				default:
+					value.append(escaped);
+				}
+			}
+		}
+
+		throw new IllegalArgumentException("Invalid JSON.");
+	}
+
+	/**
+	 * Skips spaces and checks the next character is the expected one
+	 *
+	 * @param text     is the JSON text
+	 * @param at       holds the position to read from, and is moved past the
+	 *                 character
+	 * @param expected is the expected character
+	 * @throws IllegalArgumentException if the next character is something else
+	 */
+	private static void expect(String text, int[] at, char expected) {
+		if (peek(text, at) != expected) {
+			throw new IllegalArgumentException("Invalid JSON.");
+		}
+		at[0]++;
+	}
+
+	/**
+	 * Skips spaces and returns the next character without moving past it
+	 *
+	 * @param text is the JSON text
+	 * @param at   holds the position to read from, and is moved past any spaces
+	 * @return the next character, or 0 at the end of the text
+	 */
+	private static char peek(String text, int[] at) {
+		at[0] = skipSpace(text, at[0]);
+		return at[0] < text.length() ? text.charAt(at[0]) : 0;
+	}
+
+	/**
+	 * Finds the first character at or after a position that isn't a space
+	 *
+	 * @param text  is the JSON text
+	 * @param index is the position to start at
+	 * @return the position of the character, or the length of the text
+	 */
+	private static int skipSpace(String text, int index) {
+		while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+			index++;
+		}
+		return index;
+	}
+}
@@ -9,7 +9,10 @@ import java.awt.GridBagLayout;
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -27,12 +30,14 @@ import javax.swing.JTable;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingWorker;
 import javax.swing.border.Border;
 import javax.swing.border.EtchedBorder;
 import javax.swing.border.TitledBorder;
 import javax.swing.table.AbstractTableModel;
 
 import edu.ncsu.csc216.product_backlog.model.backlog.BacklogManager;
+import edu.ncsu.csc216.product_backlog.model.backlog.UnsavedChangeException;
 import edu.ncsu.csc216.product_backlog.model.command.Command;
 import edu.ncsu.csc216.product_backlog.model.command.Command.CommandValue;
 import edu.ncsu.csc216.product_backlog.model.task.Task;
@@ -122,7 +127,25 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 		setSize(500, 700);
 		setLocation(50, 50);
 		setTitle(APP_TITLE);
-		setDefaultCloseOperation(EXIT_ON_CLOSE);
+		setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+		addWindowListener(new WindowAdapter() {
+
+			/**
+			 * Waits for any background saves to be written before exiting, since
+			 * the save thread stops when the program does
+			 *
+			 * @param e is the window event
+			 */
+			@Override
+			public void windowClosing(WindowEvent e) {
+				try {
+					BacklogManager.getInstance().flushSaves();
+				} catch (IllegalArgumentException exp) {
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Unable to save file.");
+				}
+				System.exit(0);
+			}
+		});
 		setUpMenuBar();
 
 		// Create JPanel that will hold rest of GUI information.
@@ -216,6 +239,7 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 			// Save products and tasks lists to file
 			try {
 				model.saveToFile(getFileName(false));
+				reportSaves();
 			} catch (IllegalArgumentException exp) {
 				JOptionPane.showMessageDialog(this, "Unable to save file.");
 			} catch (IllegalStateException exp) {
@@ -225,6 +249,7 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 			// Quit the program
 			try {
 				model.saveToFile(getFileName(false));
+				model.flushSaves();
 				System.exit(0); // Ignore FindBugs warning here - this is the only place to quit the program!
 			} catch (IllegalArgumentException exp) {
 				JOptionPane.showMessageDialog(this, "Unable to save file.");
@@ -234,6 +259,40 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 		}
 	}
 
+	/**
+	 * Waits for the background saves on a worker thread, so the GUI stays
+	 * responsive while the file is written, and tells the user if one failed
+	 */
+	private void reportSaves() {
+		new SwingWorker<Void, Void>() {
+
+			/**
+			 * Waits for the saves to be written
+			 *
+			 * @return null
+			 */
+			@Override
+			protected Void doInBackground() {
+				BacklogManager.getInstance().flushSaves();
+				return null;
+			}
+
+			/**
+			 * Shows an error on the event thread if a save failed
+			 */
+			@Override
+			protected void done() {
+				try {
+					get();
+				} catch (ExecutionException exp) {
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Unable to save file.");
+				} catch (InterruptedException exp) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}.execute();
+	}
+
 	/**
 	 * Returns a file name generated through interactions with a JFileChooser
 	 * object.
@@ -421,6 +480,8 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 						BacklogManager.getInstance().deleteTaskById(id);
 					} catch (NumberFormatException nfe) {
 						JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Invalid id");
+					} catch (UnsavedChangeException uce) {
+						JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 					}
 				}
 				updateProducts();
@@ -469,6 +530,10 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 					updateProducts();
 				} catch (IllegalArgumentException iae) {
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, iae.getMessage());
+				} catch (UnsavedChangeException uce) {
+					itemSave.setEnabled(true);
+					updateProducts();
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 				}
 			} else if (e.getSource() == btnEditProduct) {
 				try {
@@ -480,6 +545,10 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 					updateProducts();
 				} catch (IllegalArgumentException iae) {
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, iae.getMessage());
+				} catch (UnsavedChangeException uce) {
+					itemSave.setEnabled(true);
+					updateProducts();
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 				}
 			} else if (e.getSource() == btnDeleteProduct) {
 				try {
@@ -487,6 +556,10 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 					updateProducts();
 				} catch (IllegalArgumentException iae) {
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, iae.getMessage());
+				} catch (UnsavedChangeException uce) {
+					itemSave.setEnabled(true);
+					updateProducts();
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 				}
 			}
 
@@ -820,6 +893,8 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 				} catch (UnsupportedOperationException uoe) {
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Invalid transition");
 					reset = false;
+				} catch (UnsavedChangeException uce) {
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 				}
 			} else if (e.getSource() == btnReject) {
 				// Take care of note.
@@ -834,6 +909,8 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 				} catch (UnsupportedOperationException uoe) {
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Invalid transition");
 					reset = false;
+				} catch (UnsavedChangeException uce) {
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 				}
 			}
 			if (reset) {
@@ -1032,6 +1109,8 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 				} catch (UnsupportedOperationException uoe) {
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Invalid transition");
 					reset = false;
+				} catch (UnsavedChangeException uce) {
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 				}
 			} else if (e.getSource() == btnReject) {
 				// Try a command. If problem, go back to task item list.
@@ -1044,6 +1123,8 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 				} catch (UnsupportedOperationException uoe) {
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Invalid transition");
 					reset = false;
+				} catch (UnsavedChangeException uce) {
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 				}
 			} else if (e.getSource() == btnBacklog) {
 				// Try a command. If problem, go back to task item list.
@@ -1056,6 +1137,8 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 				} catch (UnsupportedOperationException uoe) {
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Invalid transition");
 					reset = false;
+				} catch (UnsavedChangeException uce) {
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 				}
 			}
 			if (reset) {
@@ -1279,6 +1362,8 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 				} catch (UnsupportedOperationException uoe) {
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Invalid transition");
 					reset = false;
+				} catch (UnsavedChangeException uce) {
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 				}
 			} else if (e.getSource() == btnVerify) {
 				// Try command. If problem, go to task list.
@@ -1291,6 +1376,8 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 				} catch (UnsupportedOperationException uoe) {
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Invalid transition");
 					reset = false;
+				} catch (UnsavedChangeException uce) {
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 				}
 			} else if (e.getSource() == btnComplete) {
 				// Try a command. If problem, go back to task list.
@@ -1303,6 +1390,8 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 				} catch (UnsupportedOperationException uoe) {
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Invalid transition");
 					reset = false;
+				} catch (UnsavedChangeException uce) {
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 				}
 			} else if (e.getSource() == btnBacklog) {
 				// Otherwise, try a Command. If command fails, go back to task list
@@ -1315,6 +1404,8 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 				} catch (UnsupportedOperationException uoe) {
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Invalid transition");
 					reset = false;
+				} catch (UnsavedChangeException uce) {
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 				}
 			}
 			if (reset) {
@@ -1496,6 +1587,8 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 				} catch (UnsupportedOperationException uoe) {
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Invalid transition");
 					reset = false;
+				} catch (UnsavedChangeException uce) {
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 				}
 			} else if (e.getSource() == btnComplete) {
 				// Try command. If problem, return to task list.
@@ -1508,6 +1601,8 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 				} catch (UnsupportedOperationException uoe) {
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Invalid transition");
 					reset = false;
+				} catch (UnsavedChangeException uce) {
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 				}
 			}
 			if (reset) {
@@ -1690,6 +1785,8 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 				} catch (UnsupportedOperationException uoe) {
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Invalid transition");
 					reset = false;
+				} catch (UnsavedChangeException uce) {
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 				}
 			} else if (e.getSource() == btnBacklog) {
 				// Otherwise, try a Command. If command fails, go back to task item list
@@ -1702,6 +1799,8 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 				} catch (UnsupportedOperationException uoe) {
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Invalid transition");
 					reset = false;
+				} catch (UnsavedChangeException uce) {
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 				}
 			}
 			if (reset) {
@@ -1870,6 +1969,8 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 				} catch (UnsupportedOperationException uoe) {
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Invalid transition");
 					reset = false;
+				} catch (UnsavedChangeException uce) {
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, uce.getMessage());
 				}
 			}
 			if (reset) {
@@ -2364,6 +2465,8 @@ public class ProductBacklogGUI extends JFrame implements ActionListener {
 				} catch (IllegalArgumentException exp) {
 					done = false;
 					JOptionPane.showMessageDialog(ProductBacklogGUI.this, "Invalid task information.");
+				} catch (UnsavedChangeException exp) {
+					JOptionPane.showMessageDialog(ProductBacklogGUI.this, exp.getMessage());
 				}
 			}
 			if (done) {
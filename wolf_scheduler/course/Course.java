@@ -21,12 +21,12 @@ public class Course {
 	private int credits;
 	/** Course's instructor */
 	private String instructorId;
-	/** Course's meeting days */
-	private String meetingDays;
-	/** Course's starting time */
-	private int startTime;
-	/** Course's ending time */
-	private int endTime;
+	/** Course's meeting days, one bit per letter of DAY_LETTERS */
+	private byte meetingDays;
+	/** Course's starting time in minutes since midnight */
+	private short startTime;
+	/** Course's ending time in minutes since midnight */
+	private short endTime;
 	/** Minimum length of setName's parameter, Name */
 	private static final int MIN_NAME_LENGTH = 5;
 	/** Maximum length of setName's parameter, Name */
@@ -47,6 +47,31 @@ public class Course {
 	private static final int UPPER_HOUR = 23;
 	/** Highest minutes for a course's starting or ending time */
 	private static final int UPPER_MINUTE = 59;
+	/** Number of minutes in an hour */
+	private static final int MINUTES_PER_HOUR = 60;
+	/** Meeting day letters, in the order of their bits in meetingDays */
+	private static final String DAY_LETTERS = "MTWHFA";
+	/** The meetingDays bits of an arranged Course */
+	private static final int ARRANGED = 1 << DAY_LETTERS.indexOf('A');
+	/** The meeting days String for every meetingDays value */
+	private static final String[] DAY_STRINGS = new String[1 << DAY_LETTERS.length()];
+	/** The time String (like 1:30PM) for every minute of the day */
+	private static final String[] TIME_STRINGS = new String[(UPPER_HOUR + 1) * MINUTES_PER_HOUR];
+
+	static {
+		for (int days = 0; days < DAY_STRINGS.length; days++) {
+			StringBuilder letters = new StringBuilder();
+			for (int i = 0; i < DAY_LETTERS.length(); i++) {
+				if ((days & (1 << i)) != 0) {
+					letters.append(DAY_LETTERS.charAt(i));
+				}
+			}
+			DAY_STRINGS[days] = letters.toString();
+		}
+		for (int minutes = 0; minutes < TIME_STRINGS.length; minutes++) {
+			TIME_STRINGS[minutes] = getTimeString(toMilitaryTime(minutes));
+		}
+	}
 
 	/**
 	 * Constructs the object (sets all of the fields based on the parameters passed)
@@ -243,12 +268,13 @@ public class Course {
 	}
 
 	/**
-	 * Return the Course's meeting days
+	 * Return the Course's meeting days. The days are always listed in MTWHF
+	 * order, whatever order they were set in.
 	 * 
 	 * @return the meetingDays
 	 */
 	public String getMeetingDays() {
-		return meetingDays;
+		return DAY_STRINGS[meetingDays];
 	}
 
 	/**
@@ -257,7 +283,7 @@ public class Course {
 	 * @return the startTime
 	 */
 	public int getStartTime() {
-		return startTime;
+		return toMilitaryTime(startTime);
 	}
 
 	/**
@@ -266,6 +292,24 @@ public class Course {
 	 * @return the endTime
 	 */
 	public int getEndTime() {
+		return toMilitaryTime(endTime);
+	}
+
+	/**
+	 * Returns the Course's start time in minutes since midnight
+	 * 
+	 * @return the startTime in minutes
+	 */
+	public int getStartMinutes() {
+		return startTime;
+	}
+
+	/**
+	 * Returns the Course's end time in minutes since midnight
+	 * 
+	 * @return the endTime in minutes
+	 */
+	public int getEndMinutes() {
 		return endTime;
 	}
 
@@ -307,11 +351,11 @@ public class Course {
 	 */
 	@Override
 	public String toString() {
-		if ("A".equals(meetingDays)) {
-			return name + "," + title + "," + section + "," + credits + "," + instructorId + "," + meetingDays;
+		if (meetingDays == ARRANGED) {
+			return name + "," + title + "," + section + "," + credits + "," + instructorId + "," + getMeetingDays();
 		}
-		return name + "," + title + "," + section + "," + credits + "," + instructorId + "," + meetingDays + ","
-				+ startTime + "," + endTime;
+		return name + "," + title + "," + section + "," + credits + "," + instructorId + "," + getMeetingDays() + ","
+				+ getStartTime() + "," + getEndTime();
 	}
 
 	/**
@@ -326,8 +370,6 @@ public class Course {
 		int startMin = 0;
 		int endHour = 0;
 		int endMin = 0;
-		int totalDays = 0;
-		boolean isArranged = false;
 		if (startTime > endTime) {
 			throw new IllegalArgumentException("Invalid meeting days and times.");
 		}
@@ -335,12 +377,6 @@ public class Course {
 			throw new IllegalArgumentException("Invalid meeting days and times.");
 		}
 
-		for (int i = 0; i < meetingDays.length(); i++) {
-			if (meetingDays.charAt(i) == 'A' && meetingDays.length() > 1) {
-				throw new IllegalArgumentException("Invalid meeting days and times.");
-			}
-		}
-
 		if (startTime > 2359 || startTime < 0) {
 			throw new IllegalArgumentException("Invalid meeting days and times.");
 		}
@@ -349,46 +385,27 @@ public class Course {
 			throw new IllegalArgumentException("Invalid meeting days and times.");
 		}
 
-		if ("A".equals(meetingDays)) {
-			if (startTime != 0 || endTime != 0) {
+		// Each day can only be listed once
+		int days = 0;
+		for (int i = 0; i < meetingDays.length(); i++) {
+			int day = DAY_LETTERS.indexOf(meetingDays.charAt(i));
+			if (day < 0 || (days & (1 << day)) != 0) {
+				throw new IllegalArgumentException("Invalid meeting days and times.");
+			}
+			days |= 1 << day;
+		}
+
+		if ((days & ARRANGED) != 0) {
+			if (days != ARRANGED || startTime != 0 || endTime != 0) {
 				throw new IllegalArgumentException("Invalid meeting days and times.");
 			}
 
-			this.meetingDays = meetingDays;
+			this.meetingDays = (byte) ARRANGED;
 
 			this.startTime = 0;
 			this.endTime = 0;
 
 		} else {
-			int aCount = 0;
-			int mCount = 0;
-			int tCount = 0;
-			int wCount = 0;
-			int hCount = 0;
-			int fCount = 0;
-
-			for (int i = 0; i < meetingDays.length(); i++) {
-				if (meetingDays.charAt(i) == 'A') {
-					aCount++;
-				} else if (meetingDays.charAt(i) == 'M') {
-					mCount++;
-				} else if (meetingDays.charAt(i) == 'T') {
-					tCount++;
-				} else if (meetingDays.charAt(i) == 'W') {
-					wCount++;
-				} else if (meetingDays.charAt(i) == 'H') {
-					hCount++;
-				} else if (meetingDays.charAt(i) == 'F') {
-					fCount++;
-				} else {
-					throw new IllegalArgumentException("Invalid meeting days and times.");
-				}
-			}
-
-			if (aCount > 1 || mCount > 1 || tCount > 1 || wCount > 1 || hCount > 1 || fCount > 1) {
-				throw new IllegalArgumentException("Invalid meeting days and times.");
-			}
-
 			startHour = startTime / 100;
 			startMin = startTime % 100;
 			endHour = endTime / 100;
@@ -407,9 +424,9 @@ public class Course {
 				throw new IllegalArgumentException("Invalid meeting days and times.");
 			}
 
-			this.startTime = startTime;
-			this.endTime = endTime;
-			this.meetingDays = meetingDays;
+			this.startTime = (short) (startHour * MINUTES_PER_HOUR + startMin);
+			this.endTime = (short) (endHour * MINUTES_PER_HOUR + endMin);
+			this.meetingDays = (byte) days;
 		}
 	}
 
@@ -419,18 +436,30 @@ public class Course {
 	 * @return the Course's meeting days, start time, and end time
 	 */
 	public String getMeetingString() {
-		String meetingOnDays = getMeetingDays();
-		int startingTime = this.startTime;
-		int endingTime = this.endTime;
-		if ("A".equals(meetingDays)) {
+		if (meetingDays == ARRANGED) {
 			return "Arranged";
-		} else {
-			return "" + meetingOnDays + " " + getTimeString(startingTime) + "-" + getTimeString(endingTime);
-
 		}
+		return getMeetingDays() + " " + TIME_STRINGS[startTime] + "-" + TIME_STRINGS[endTime];
 	}
 
-	private String getTimeString(int time) {
+	/**
+	 * Converts minutes since midnight to a military time
+	 * 
+	 * @param minutes the number of minutes since midnight
+	 * @return the time as hhmm
+	 */
+	private static int toMilitaryTime(int minutes) {
+		return minutes / MINUTES_PER_HOUR * 100 + minutes % MINUTES_PER_HOUR;
+	}
+
+	/**
+	 * Formats a military time as hours, minutes, and AM or PM. Only used to fill
+	 * TIME_STRINGS.
+	 * 
+	 * @param time the time as hhmm
+	 * @return the formatted time
+	 */
+	private static String getTimeString(int time) {
 		int hours = 0;
 		int min = 0;
 		boolean addLeadingZero = false;
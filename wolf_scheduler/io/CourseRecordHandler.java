@@ -0,0 +1,25 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.util.ArrayList;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Receives batches of Courses as CourseRecordIO reads them from a file, so a
+ * caller can use the first Courses before the whole file is read.
+ *
+ * @author Justin Cristinziano
+ */
+public interface CourseRecordHandler {
+
+	/**
+	 * Called with each batch of valid Courses, in file order. The last call
+	 * always has bytesRead equal to totalBytes, even if its batch is empty.
+	 *
+	 * @param courses    the next batch of Courses read from the file
+	 * @param bytesRead  about how many bytes of the file have been read so far
+	 * @param totalBytes the size of the file in bytes
+	 * @return true to keep reading, or false to stop reading the file
+	 */
+	boolean coursesRead(ArrayList<Course> courses, long bytesRead, long totalBytes);
+}
@@ -3,9 +3,21 @@ package edu.ncsu.csc216.wolf_scheduler.io;
 import java.io.FileNotFoundException;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.File;
 
@@ -19,6 +31,17 @@ import edu.ncsu.csc216.wolf_scheduler.course.Course;
  */
 public class CourseRecordIO {
 
+	/** Most comma separated fields a course record can have */
+	private static final int MAX_FIELDS = 8;
+	/** Number of fields in an arranged course record */
+	private static final int ARRANGED_FIELDS = 6;
+	/** Number of Courses handed to a CourseRecordHandler at a time */
+	private static final int BATCH_SIZE = 500;
+	/** Target size in bytes of each chunk readCourseRecordsMapped parses */
+	private static final long CHUNK_SIZE = 8L * 1024 * 1024;
+	/** Size of the buffer used to find line boundaries between chunks */
+	private static final int BOUNDARY_BUFFER_SIZE = 8 * 1024;
+
 	/**
 	 * Reads course records from a file and generates a list of valid Courses. Any
 	 * invalid Courses are ignored. If the file to read cannot be found or the
@@ -27,88 +50,341 @@ public class CourseRecordIO {
 	 * @param fileName file to read Course records from
 	 * @return a list of valid Courses
 	 * @throws FileNotFoundException if the file cannot be found or read
+	 * @throws IOException if the file cannot be read after it is opened
+	 */
+	public static ArrayList<Course> readCourseRecords(String fileName) throws IOException {
+		final ArrayList<Course> courses = new ArrayList<Course>(); // Create an empty array of Course objects
+		
+		readCourseRecords(fileName, new CourseRecordHandler() {
+			@Override
+			public boolean coursesRead(ArrayList<Course> batch, long bytesRead, long totalBytes) {
+				courses.addAll(batch); // Add to the ArrayList!
+				return true;
+			}
+		});
+		// Return the ArrayList with all the courses we read!
+		return courses;
+	}
+
+	/**
+	 * Reads course records from a file like readCourseRecords(String), but hands
+	 * the valid Courses to the handler in batches as they're read along with how
+	 * much of the file has been read. Reading stops early if the handler returns
+	 * false.
+	 * 
+	 * @param fileName file to read Course records from
+	 * @param handler  receives each batch of valid Courses in file order
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 * @throws IOException if the file cannot be read after it is opened
+	 */
+	public static void readCourseRecords(String fileName, CourseRecordHandler handler) throws IOException {
+		FileInputStream stream = new FileInputStream(fileName);
+		FileChannel channel = stream.getChannel(); // Used to tell how far into the file we are
+		// Create a buffered reader to read the file line by line
+		BufferedReader fileReader = new BufferedReader(new InputStreamReader(stream));
+		
+		try {
+			long totalBytes = channel.size();
+			ArrayList<Course> batch = new ArrayList<Course>(BATCH_SIZE);
+			HashSet<String> keys = new HashSet<String>(); // Names and sections of the courses read so far
+			
+			String line;
+			while ((line = fileReader.readLine()) != null) { // While we have more lines in the file
+				try { // Attempt to do the following
+						// Read the line, process it in readCourse, and get the object
+						// If trying to construct a Course in readCourse() results in an exception, flow
+						// of control will transfer to the catch block, below
+					Course course = readCourse(line);
+
+					// Only add the course if its name and section haven't been read yet,
+					// so the first one in the file wins
+					if (keys.add(course.getName() + "," + course.getSection())) {
+						batch.add(course);
+					} // Otherwise ignore
+				} catch (IllegalArgumentException e) {
+					// The line is invalid b/c we couldn't create a course, skip it!
+				}
+				
+				if (batch.size() == BATCH_SIZE) {
+					if (!handler.coursesRead(batch, channel.position(), totalBytes)) {
+						return;
+					}
+					batch = new ArrayList<Course>(BATCH_SIZE);
+				}
+			}
+			handler.coursesRead(batch, totalBytes, totalBytes);
+		} finally {
+			// Close the reader b/c we're responsible with our file handles
+			fileReader.close();
+		}
+	}
+
+	/**
+	 * Reads course records from a file the same way as readCourseRecords, but
+	 * memory maps the file and parses line aligned chunks of it in parallel on
+	 * the common fork-join pool. Meant for very large catalog files.
+	 * 
+	 * @param fileName file to read Course records from
+	 * @return a list of valid Courses in file order
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 * @throws IOException if the file cannot be mapped or read
+	 */
+	public static ArrayList<Course> readCourseRecordsMapped(String fileName) throws IOException {
+		return readCourseRecordsMapped(fileName, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Reads course records from a file the same way as readCourseRecords, but
+	 * memory maps the file and parses line aligned chunks of it in parallel on
+	 * the given fork-join pool. The chunks are merged back in file order, so
+	 * invalid lines are skipped and the first of any duplicate name and section
+	 * wins, just like the sequential reader.
+	 * 
+	 * @param fileName file to read Course records from
+	 * @param pool     the pool the chunks are parsed on
+	 * @return a list of valid Courses in file order
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 * @throws IOException if the file cannot be mapped or read
+	 */
+	public static ArrayList<Course> readCourseRecordsMapped(String fileName, ForkJoinPool pool) throws IOException {
+		if (!new File(fileName).isFile()) {
+			throw new FileNotFoundException(fileName);
+		}
+		
+		FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+		try {
+			long[] bounds = chunkBounds(channel);
+			ArrayList<ArrayList<Course>> chunks;
+			try {
+				chunks = pool.invoke(new ChunkTask(channel, bounds, 0, bounds.length - 1));
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+			
+			ArrayList<Course> courses = new ArrayList<Course>();
+			HashSet<String> keys = new HashSet<String>();
+			for (int i = 0; i < chunks.size(); i++) {
+				ArrayList<Course> chunk = chunks.get(i);
+				for (int j = 0; j < chunk.size(); j++) {
+					Course course = chunk.get(j);
+					// Same first one wins rule as readCourseRecords
+					if (keys.add(course.getName() + "," + course.getSection())) {
+						courses.add(course);
+					}
+				}
+			}
+			return courses;
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Splits the file into chunks of about CHUNK_SIZE bytes. Every chunk but the
+	 * last ends just after a newline, so no line is split between two chunks.
+	 * 
+	 * @param channel the file to split
+	 * @return the offsets the chunks start at, followed by the size of the file
+	 * @throws IOException if the file cannot be read
 	 */
-	public static ArrayList<Course> readCourseRecords(String fileName) throws FileNotFoundException {
-		Scanner fileReader = new Scanner(new FileInputStream(fileName)); // Create a file scanner to read the file
+	private static long[] chunkBounds(FileChannel channel) throws IOException {
+		long size = channel.size();
+		ArrayList<Long> bounds = new ArrayList<Long>();
+		ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_BUFFER_SIZE);
 		
-		ArrayList<Course> courses = new ArrayList<Course>(); // Create an empty array of Course objects
+		long start = 0;
+		bounds.add(start);
+		while (start < size) {
+			long end = start + CHUNK_SIZE;
+			if (end >= size) {
+				end = size;
+			} else {
+				end = nextLineStart(channel, buffer, end - 1, size);
+			}
+			bounds.add(end);
+			start = end;
+		}
 		
-		while (fileReader.hasNextLine()) { // While we have more lines in the file
-			try { // Attempt to do the following
-					// Read the line, process it in readCourse, and get the object
-					// If trying to construct a Course in readCourse() results in an exception, flow
-					// of control will transfer to the catch block, below
-				Course course = readCourse(fileReader.nextLine());
-
-				// Create a flag to see if the newly created Course is a duplicate of something
-				// already in the list
-				boolean duplicate = false;
-				// Look at all the courses in our list
-				for (int i = 0; i < courses.size(); i++) {
-					// Get the course at index i
-					Course current = courses.get(i);
-					// Check if the name and section are the same
-					if (course.getName().equals(current.getName())
-							&& course.getSection().equals(current.getSection())) {
-						// It's a duplicate!
-						duplicate = true;
-						break; // We can break out of the loop, no need to continue searching
+		long[] result = new long[bounds.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = bounds.get(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the offset just after the first newline at or after position.
+	 * 
+	 * @param channel  the file to search
+	 * @param buffer   buffer to read the file through
+	 * @param position offset to start searching from
+	 * @param size     size of the file
+	 * @return the offset of the start of the next line, or size if there isn't one
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long nextLineStart(FileChannel channel, ByteBuffer buffer, long position, long size)
+			throws IOException {
+		while (position < size) {
+			buffer.clear();
+			int read = channel.read(buffer, position);
+			if (read <= 0) {
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == '\n') {
+					return position + i + 1;
+				}
+			}
+			position += read;
+		}
+		return size;
+	}
+
+	/**
+	 * Parses a range of chunks of a mapped course file, splitting the range in
+	 * half until only one chunk is left.
+	 */
+	private static class ChunkTask extends RecursiveTask<ArrayList<ArrayList<Course>>> {
+
+		/** ID used for object serialization */
+		private static final long serialVersionUID = 1L;
+		/** The file being read */
+		private final transient FileChannel channel;
+		/** Chunk offsets from chunkBounds */
+		private final long[] bounds;
+		/** First chunk of the range */
+		private final int first;
+		/** Chunk after the last one in the range */
+		private final int last;
+
+		/**
+		 * Constructs a task for chunks first up to (not including) last
+		 * 
+		 * @param channel the file being read
+		 * @param bounds  chunk offsets from chunkBounds
+		 * @param first   first chunk of the range
+		 * @param last    chunk after the last one in the range
+		 */
+		ChunkTask(FileChannel channel, long[] bounds, int first, int last) {
+			this.channel = channel;
+			this.bounds = bounds;
+			this.first = first;
+			this.last = last;
+		}
+
+		/**
+		 * Parses the range of chunks
+		 * 
+		 * @return the valid Courses of each chunk, in file order
+		 */
+		@Override
+		protected ArrayList<ArrayList<Course>> compute() {
+			if (last - first <= 1) {
+				ArrayList<ArrayList<Course>> result = new ArrayList<ArrayList<Course>>();
+				if (first < last) {
+					result.add(readChunk(bounds[first], bounds[last]));
+				}
+				return result;
+			}
+			
+			int middle = (first + last) >>> 1;
+			ChunkTask left = new ChunkTask(channel, bounds, first, middle);
+			ChunkTask right = new ChunkTask(channel, bounds, middle, last);
+			left.fork();
+			ArrayList<ArrayList<Course>> result = right.compute();
+			result.addAll(0, left.join());
+			return result;
+		}
+
+		/**
+		 * Maps one chunk of the file and parses each of its lines, skipping any
+		 * invalid ones.
+		 * 
+		 * @param start offset of the chunk
+		 * @param end   offset just past the chunk
+		 * @return the valid Courses in the chunk
+		 */
+		private ArrayList<Course> readChunk(long start, long end) {
+			CharBuffer text;
+			try {
+				MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+				text = Charset.defaultCharset().decode(mapped);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			
+			ArrayList<Course> courses = new ArrayList<Course>();
+			char[] chars = text.array();
+			int offset = text.arrayOffset() + text.position();
+			int length = offset + text.remaining();
+			int lineStart = offset;
+			for (int i = offset; i < length; i++) {
+				char c = chars[i];
+				if (c == '\n' || c == '\r') {
+					addCourse(courses, new String(chars, lineStart, i - lineStart));
+					if (c == '\r' && i + 1 < length && chars[i + 1] == '\n') {
+						i++;
 					}
+					lineStart = i + 1;
 				}
-				// If the course is NOT a duplicate
-				if (!duplicate) {
-					courses.add(course); // Add to the ArrayList!
-				} // Otherwise ignore
+			}
+			if (lineStart < length) {
+				addCourse(courses, new String(chars, lineStart, length - lineStart));
+			}
+			return courses;
+		}
+
+		/**
+		 * Adds the Course on the given line to the list if the line is valid
+		 * 
+		 * @param courses list to add the Course to
+		 * @param line    line of the file to process
+		 */
+		private static void addCourse(ArrayList<Course> courses, String line) {
+			try {
+				courses.add(readCourse(line));
 			} catch (IllegalArgumentException e) {
 				// The line is invalid b/c we couldn't create a course, skip it!
 			}
 		}
-		// Close the Scanner b/c we're responsible with our file handles
-		fileReader.close();
-		// Return the ArrayList with all the courses we read!
-		return courses;
 	}
 
+	/**
+	 * Creates a Course from a single comma separated line of the file. The line
+	 * is split by hand rather than with a Scanner so no regex work is done per
+	 * line.
+	 * 
+	 * @param nextLine line of the file to process
+	 * @return the Course described by the line
+	 * @throws IllegalArgumentException if the line isn't a valid Course
+	 */
 	private static Course readCourse(String nextLine) {
-		Scanner fileReader = new Scanner(nextLine); // Constructing the scanner
-		
-		String name = "";
-		String title = "";
-		String section = "";
-		int credits = 0;
-		String instructorID = "";
-		String meetingDays = "";
-		int startTime = 0;
-		int endTime = 0;
-		
-		fileReader.useDelimiter(","); //sets delimiter to ,
+		String[] fields = new String[MAX_FIELDS];
+		int fieldCount = splitFields(nextLine, fields);
 		
 		try {
-			name = fileReader.next();
-			title = fileReader.next();
-			section = fileReader.next();
-			credits = fileReader.nextInt();
-			instructorID = fileReader.next();
-			meetingDays = fileReader.next();
+			if (fieldCount < ARRANGED_FIELDS) {
+				throw new IllegalArgumentException("File line has too few args");
+			}
 			
+			String name = fields[0];
+			String title = fields[1];
+			String section = fields[2];
+			int credits = parseInt(fields[3]);
+			String instructorID = fields[4];
+			String meetingDays = fields[5];
 			
-			if("A".equals(meetingDays)) {
-				if(fileReader.hasNext()) {
-					fileReader.close();
+			if ("A".equals(meetingDays)) {
+				if (fieldCount != ARRANGED_FIELDS) {
 					throw new IllegalArgumentException("Course can't be arranged and have start/end time");
-				} else {
-					fileReader.close();
-					return new Course(name, title, section, credits, instructorID, meetingDays);
 				}
+				return new Course(name, title, section, credits, instructorID, meetingDays);
 			} else {
-				startTime = fileReader.nextInt();
-				endTime = fileReader.nextInt();
-				
-				if(fileReader.hasNext() || fileReader.hasNextInt()) {
-					fileReader.close();	
-					throw new IllegalArgumentException("File line has too many args");
+				if (fieldCount != MAX_FIELDS) {
+					throw new IllegalArgumentException("File line has wrong number of args");
 				}
-				fileReader.close();
+				int startTime = parseInt(fields[6]);
+				int endTime = parseInt(fields[7]);
 				return new Course(name, title, section, credits, instructorID, meetingDays, startTime, endTime);
 			}
 		} catch (Exception e) {
@@ -116,6 +392,72 @@ public class CourseRecordIO {
 		}
 	}
 
+	/**
+	 * Splits a line on commas into the given array. Like the Scanner this
+	 * replaces, a single leading or trailing comma doesn't start an extra field.
+	 * 
+	 * @param line   the line to split
+	 * @param fields array the fields are stored in
+	 * @return the number of fields in the line, or fields.length + 1 if there are
+	 *         more fields than the array holds
+	 */
+	private static int splitFields(String line, String[] fields) {
+		int start = 0;
+		int end = line.length();
+		if (start < end && line.charAt(start) == ',') {
+			start++;
+		}
+		if (start < end && line.charAt(end - 1) == ',') {
+			end--;
+		}
+		
+		int count = 0;
+		while (true) {
+			if (count == fields.length) {
+				return fields.length + 1;
+			}
+			int comma = line.indexOf(',', start);
+			if (comma < 0 || comma >= end) {
+				fields[count++] = line.substring(start, end);
+				return count;
+			}
+			fields[count++] = line.substring(start, comma);
+			start = comma + 1;
+		}
+	}
+
+	/**
+	 * Parses a whole field as a base 10 int with an optional sign. Unlike
+	 * Integer.parseInt this throws an IllegalArgumentException on bad input so
+	 * readCourse can treat it like any other invalid field.
+	 * 
+	 * @param field the field to parse
+	 * @return the int value of the field
+	 * @throws IllegalArgumentException if the field isn't a valid int
+	 */
+	private static int parseInt(String field) {
+		int length = field.length();
+		int i = 0;
+		boolean negative = false;
+		if (length > 0 && (field.charAt(0) == '-' || field.charAt(0) == '+')) {
+			negative = field.charAt(0) == '-';
+			i++;
+		}
+		if (i == length) {
+			throw new IllegalArgumentException("Invalid number");
+		}
+		
+		int value = 0;
+		for (; i < length; i++) {
+			int digit = Character.digit(field.charAt(i), 10);
+			if (digit < 0 || value > (Integer.MAX_VALUE - digit) / 10) {
+				throw new IllegalArgumentException("Invalid number");
+			}
+			value = value * 10 + digit;
+		}
+		return negative ? -value : value;
+	}
+
 	/**
 	 * Writes the given list of Courses to
 	 * 
@@ -0,0 +1,97 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.BitSet;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tracks which minutes of each weekday are taken by the courses in a schedule
+ * so a course can be checked for a time conflict without looking at every
+ * scheduled course.
+ *
+ * @author Justin Cristinziano
+ */
+class ConflictIndex {
+
+	/** Meeting day letters, in the order their minutes are stored */
+	private static final String DAYS = "MTWHF";
+	/** Number of minutes in a day */
+	private static final int MINUTES_PER_DAY = 24 * 60;
+	/** Meeting days of an arranged course */
+	private static final String ARRANGED = "A";
+
+	/** One bit per minute of each weekday, set if a scheduled course meets then */
+	private BitSet taken = new BitSet(DAYS.length() * MINUTES_PER_DAY);
+
+	/**
+	 * Checks if the given course meets at any time that's already taken. Start
+	 * and end times are inclusive, so a course starting the minute another ends
+	 * is a conflict. Arranged courses never conflict.
+	 *
+	 * @param course the course to check
+	 * @return true if the course conflicts with the schedule
+	 */
+	boolean conflicts(Course course) {
+		if (ARRANGED.equals(course.getMeetingDays())) {
+			return false;
+		}
+		int start = course.getStartMinutes();
+		int end = course.getEndMinutes();
+		String days = course.getMeetingDays();
+
+		for (int i = 0; i < days.length(); i++) {
+			int offset = DAYS.indexOf(days.charAt(i)) * MINUTES_PER_DAY;
+			int next = taken.nextSetBit(offset + start);
+			if (next >= 0 && next <= offset + end) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Marks the minutes the given course meets as taken
+	 *
+	 * @param course the course added to the schedule
+	 */
+	void add(Course course) {
+		mark(course, true);
+	}
+
+	/**
+	 * Frees the minutes the given course meets. Only valid for a course that was
+	 * added, since scheduled courses never share a minute.
+	 *
+	 * @param course the course removed from the schedule
+	 */
+	void remove(Course course) {
+		mark(course, false);
+	}
+
+	/**
+	 * Frees every minute of every day
+	 */
+	void clear() {
+		taken.clear();
+	}
+
+	/**
+	 * Sets or clears the minutes the given course meets
+	 *
+	 * @param course the course to mark
+	 * @param value  true to mark the minutes taken, false to free them
+	 */
+	private void mark(Course course, boolean value) {
+		if (ARRANGED.equals(course.getMeetingDays())) {
+			return;
+		}
+		int start = course.getStartMinutes();
+		int end = course.getEndMinutes();
+		String days = course.getMeetingDays();
+
+		for (int i = 0; i < days.length(); i++) {
+			int offset = DAYS.indexOf(days.charAt(i)) * MINUTES_PER_DAY;
+			taken.set(offset + start, offset + end + 1, value);
+		}
+	}
+}
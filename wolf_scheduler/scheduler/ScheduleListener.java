@@ -0,0 +1,33 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Listens for changes to a WolfScheduler's schedule so views can update only
+ * the rows that changed.
+ *
+ * @author Justin Cristinziano
+ */
+public interface ScheduleListener {
+
+	/**
+	 * Called after a course is added to the schedule
+	 *
+	 * @param index  the index the course was added at
+	 * @param course the course that was added
+	 */
+	void courseAdded(int index, Course course);
+
+	/**
+	 * Called after a course is removed from the schedule
+	 *
+	 * @param index  the index the course was removed from
+	 * @param course the course that was removed
+	 */
+	void courseRemoved(int index, Course course);
+
+	/**
+	 * Called after every course is removed from the schedule
+	 */
+	void scheduleReset();
+}
@@ -4,6 +4,8 @@
 package edu.ncsu.csc216.wolf_scheduler.scheduler;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
 
@@ -15,28 +17,80 @@ public class WolfScheduler {
 
 	/** A catalog of the courses */
 	private ArrayList<Course> catalog = new ArrayList<Course>();
+	/** Catalog courses keyed on their name and section */
+	private HashMap<String, Course> catalogIndex = new HashMap<String, Course>();
+	/** Catalog sections grouped by course name, in catalog order */
+	private HashMap<String, ArrayList<Course>> sectionsByName = new HashMap<String, ArrayList<Course>>();
 	/** The schedule with all of the user's courses */
 	private ArrayList<Course> schedule = new ArrayList<Course>();
+	/** Scheduled courses keyed on their name */
+	private HashMap<String, Course> scheduledNames = new HashMap<String, Course>();
+	/** Meeting times taken by the scheduled courses */
+	private ConflictIndex conflicts = new ConflictIndex();
+	/** Listeners told about changes to the schedule */
+	private ArrayList<ScheduleListener> listeners = new ArrayList<ScheduleListener>();
 	/** The schedule's title */
 	private String title;
 	/** The number of columns in schedule */
 	private static final int COLUMN_COUNT = 3;
 	/** Full schedule column count */
 	private static final int FULL_COLUMN_COUNT = 6;
+/**
+ * Constructor that sets the schedule and title fields with an empty catalog.
+ * 	Courses can be added to the catalog later with addCoursesToCatalog.
+ */
+	public WolfScheduler() {
+		this.schedule = new ArrayList<>();
+		this.title = "My Schedule";
+	}
 /**
  * Constructor that sets the schedule and title fields (and catalog
  * 	from a file name provided)
  * @param fileName the name of the file
  */
 	public WolfScheduler(String fileName) {
-		this.schedule = new ArrayList<>();
-		this.title = "My Schedule";
+		this();
 
+		ArrayList<Course> courses;
 		try {
-			catalog = CourseRecordIO.readCourseRecords(fileName);
+			courses = CourseRecordIO.readCourseRecords(fileName);
 		} catch (Exception e) {
 			throw new IllegalArgumentException("Cannot find file.");
 		}
+		addCoursesToCatalog(courses);
+	}
+/**
+ * Adds courses to the end of the catalog and its name/section and name
+ * 	lookups. A course with the same name and section as one already in the
+ * 	catalog is skipped, so the first one added wins.
+ * @param courses the courses to add, in catalog order
+ */
+	public void addCoursesToCatalog(List<Course> courses) {
+		for (int i = 0; i < courses.size(); i++) {
+			Course c = courses.get(i);
+			String key = catalogKey(c.getName(), c.getSection());
+			if (catalogIndex.containsKey(key)) {
+				continue;
+			}
+			catalog.add(c);
+			catalogIndex.put(key, c);
+
+			ArrayList<Course> sections = sectionsByName.get(c.getName());
+			if (sections == null) {
+				sections = new ArrayList<Course>();
+				sectionsByName.put(c.getName(), sections);
+			}
+			sections.add(c);
+		}
+	}
+/**
+ * Builds the catalog index key for a course name and section
+ * @param name the name of the course
+ * @param section the section of the course
+ * @return the key for catalogIndex
+ */
+	private static String catalogKey(String name, String section) {
+		return name + "," + section;
 	}
 /**
  * Returns the catalog's courses (their name, section, and title)
@@ -52,6 +106,34 @@ public class WolfScheduler {
 		}
 		return catalogArray;
 	}
+/**
+ * Returns the number of courses in the catalog
+ * @return the size of the catalog
+ */
+	public int getCatalogSize() {
+		return catalog.size();
+	}
+/**
+ * Returns one cell of the catalog without copying the catalog. The columns
+ * 	match getCourseCatalog (name, section, and title).
+ * @param row the index of the course in the catalog
+ * @param column 0 for the name, 1 for the section, or 2 for the title
+ * @return the value in the given row and column
+ * @throws IndexOutOfBoundsException if the row or column doesn't exist
+ */
+	public String getCatalogCell(int row, int column) {
+		Course course = catalog.get(row);
+		switch (column) {
+		case 0:
+			return course.getName();
+		case 1:
+			return course.getSection();
+		case 2:
+			return course.getTitle();
+		default:
+			throw new IndexOutOfBoundsException("Invalid catalog column " + column);
+		}
+	}
 /**
  * provides the schedule (each courses name, section, and title)
  * @return scheduleArray a 2D array of all the courses in schedule
@@ -99,13 +181,19 @@ public class WolfScheduler {
  * @return the course you specified or null if it doesn't exist in catalog
  */
 	public Course getCourseFromCatalog(String name, String section) {
-		for (int i = 0; i < catalog.size(); i++) {
-			if (catalog.get(i).getName().equals(name) && catalog.get(i).getSection().equals(section)) {
-				return catalog.get(i);
-			}
+		return catalogIndex.get(catalogKey(name, section));
+	}
+/**
+ * provides every catalog section of a course
+ * @param name the name of the course
+ * @return the course's sections in catalog order, empty if it isn't in the catalog
+ */
+	public ArrayList<Course> getSectionsFromCatalog(String name) {
+		ArrayList<Course> sections = sectionsByName.get(name);
+		if (sections == null) {
+			return new ArrayList<Course>();
 		}
-
-		return null;
+		return new ArrayList<Course>(sections);
 	}
 /**
  * adds a course to the schedule and returns true if successful (false if not)
@@ -114,26 +202,43 @@ public class WolfScheduler {
  * @return true if addition was successful and false if not
  */
 	public boolean addCourseToSchedule(String name, String section) {
-		// The number that correlates to the requested course (will change)
-		if(catalog.isEmpty()) {
+		Course course = getCourseFromCatalog(name, section);
+		// if course doesn't exist in catalog
+		if (course == null) {
 			return false;
 		}
-		
+		// if a section of it is already in the schedule, throw exception.
+		if (scheduledNames.containsKey(name)) {
+			throw new IllegalArgumentException("You are already enrolled in " + name);
+		}
+		// if it meets at the same time as a scheduled course, throw exception.
+		if (conflicts.conflicts(course)) {
+			throw new IllegalArgumentException("The course cannot be added due to a conflict.");
+		}
+		schedule.add(course);
+		scheduledNames.put(name, course);
+		conflicts.add(course);
+		for (int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).courseAdded(schedule.size() - 1, course);
+		}
+		return true;
+	}
+/**
+ * provides every catalog section that could be added to the schedule, meaning
+ * 	it doesn't conflict with a scheduled course and no section of the same
+ * 	course is already scheduled
+ * @return the sections that fit the schedule, in catalog order
+ */
+	public ArrayList<Course> getCoursesThatFit() {
+		ArrayList<Course> fits = new ArrayList<Course>();
+
 		for (int i = 0; i < catalog.size(); i++) {
-			// if course exists in catalog
-			if (catalog.get(i).getName().equals(name) && catalog.get(i).getSection().equals(section)) {
-				// check to see if it's in schedule arrayList
-				for (int j = 0; j < schedule.size(); j++) {
-					// if it does exist in schedule arrayList, throw exception.
-					if (name.equals(schedule.get(j).getName())) {
-						throw new IllegalArgumentException("You are already enrolled in " + name);
-					}
-				}
-				// if schedule doesn't contain catalog(i), add it to schedule arrayList
-				schedule.add(catalog.get(i));
-				return true;
-			} 
-		} return false;
+			Course c = catalog.get(i);
+			if (!scheduledNames.containsKey(c.getName()) && !conflicts.conflicts(c)) {
+				fits.add(c);
+			}
+		}
+		return fits;
 	}
 /**
  * Removes a course from the schedule
@@ -144,7 +249,12 @@ public class WolfScheduler {
 	public boolean removeCourseFromSchedule(String name, String section) {
 		for(int i = 0; i < schedule.size(); i++) {
 			if(name.equals(schedule.get(i).getName()) && section.equals(schedule.get(i).getSection())) {
-				schedule.remove(i);
+				Course removed = schedule.remove(i);
+				conflicts.remove(removed);
+				scheduledNames.remove(name);
+				for (int j = 0; j < listeners.size(); j++) {
+					listeners.get(j).courseRemoved(i, removed);
+				}
 				return true;
 			}
 		}
@@ -155,6 +265,26 @@ public class WolfScheduler {
  */
 	public void resetSchedule() {
 		schedule = new ArrayList<Course>();
+		scheduledNames = new HashMap<String, Course>();
+		conflicts.clear();
+		for (int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).scheduleReset();
+		}
+	}
+/**
+ * Adds a listener that's told whenever a course is added to or removed from
+ * 	the schedule
+ * @param listener the listener to add
+ */
+	public void addScheduleListener(ScheduleListener listener) {
+		listeners.add(listener);
+	}
+/**
+ * Removes a listener added with addScheduleListener
+ * @param listener the listener to remove
+ */
+	public void removeScheduleListener(ScheduleListener listener) {
+		listeners.remove(listener);
 	}
 /**
  * Provides the schedule's title
@@ -8,7 +8,12 @@ import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -17,10 +22,12 @@ import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingWorker;
 import javax.swing.border.Border;
 import javax.swing.border.EtchedBorder;
 import javax.swing.border.TitledBorder;
@@ -29,6 +36,9 @@ import javax.swing.event.ListSelectionListener;
 import javax.swing.table.AbstractTableModel;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordHandler;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.ScheduleListener;
 import edu.ncsu.csc216.wolf_scheduler.scheduler.WolfScheduler;
 
 /**
@@ -71,12 +81,15 @@ public class WolfSchedulerGUI extends JFrame  {
 		setTitle(APP_TITLE);
 		setDefaultCloseOperation(EXIT_ON_CLOSE);
 		
-		//Construct the underlying model object
+		//Construct the underlying model object.  The catalog is loaded
+		//in the background once the GUI is visible.
+		String fileName = null;
 		try {
-			scheduler = new WolfScheduler(getFileName(true));
+			fileName = getFileName(true);
 		} catch (IllegalStateException e) {
 			System.exit(1);
 		}
+		scheduler = new WolfScheduler();
 		
 		//Construct panels
 		pnlScheduler = new SchedulerPanel();
@@ -98,6 +111,8 @@ public class WolfSchedulerGUI extends JFrame  {
 		
 		//Set the GUI visible
 		setVisible(true);
+		
+		pnlScheduler.loadCatalog(fileName);
 	}
 	
 	/**
@@ -150,6 +165,12 @@ public class WolfSchedulerGUI extends JFrame  {
 		private JButton btnReset;
 		/** Button for displaying the final schedule */
 		private JButton btnDisplay;
+		/** Progress bar for loading the catalog */
+		private JProgressBar prgLoad;
+		/** Button for canceling the catalog load */
+		private JButton btnCancelLoad;
+		/** Worker loading the catalog, null until a load starts */
+		private CatalogLoader loader;
 		/** JTable for displaying the catalog of Courses */
 		private JTable tableCatalog;
 		/** JTable for displaying the schdule of Courses */
@@ -212,9 +233,14 @@ public class WolfSchedulerGUI extends JFrame  {
 			txtScheduleTitle = new JTextField(scheduler.getScheduleTitle(), 20); 
 			btnSetScheduleTitle = new JButton("Set Title");
 			btnSetScheduleTitle.addActionListener(this);
+			prgLoad = new JProgressBar(0, 100);
+			prgLoad.setStringPainted(true);
+			btnCancelLoad = new JButton("Cancel Load");
+			btnCancelLoad.addActionListener(this);
+			btnCancelLoad.setEnabled(false);
 			
 			JPanel pnlActions = new JPanel();
-			pnlActions.setLayout(new GridLayout(3, 1));
+			pnlActions.setLayout(new GridLayout(4, 1));
 			JPanel pnlAddRemove = new JPanel();
 			pnlAddRemove.setLayout(new GridLayout(1, 2));
 			pnlAddRemove.add(btnAddCourse);
@@ -228,9 +254,14 @@ public class WolfSchedulerGUI extends JFrame  {
 			pnlScheduleTitle.add(lblScheduleTitle);
 			pnlScheduleTitle.add(txtScheduleTitle);
 			pnlScheduleTitle.add(btnSetScheduleTitle);
+			JPanel pnlLoad = new JPanel();
+			pnlLoad.setLayout(new GridLayout(1, 2));
+			pnlLoad.add(prgLoad);
+			pnlLoad.add(btnCancelLoad);
 			pnlActions.add(pnlAddRemove);
 			pnlActions.add(pnlResetDisplay);
 			pnlActions.add(pnlScheduleTitle);
+			pnlActions.add(pnlLoad);
 			
 			Border lowerEtched = BorderFactory.createEtchedBorder(EtchedBorder.LOWERED);
 			TitledBorder borderActions = BorderFactory.createTitledBorder(lowerEtched, "Actions");
@@ -290,8 +321,6 @@ public class WolfSchedulerGUI extends JFrame  {
 			scrollSchedule.setBorder(borderSchedule);
 			scrollSchedule.setToolTipText(scheduler.getScheduleTitle());
 			
-			updateTables();
-			
 			//Set up the course details panel
 			pnlCourseDetails = new JPanel();
 			pnlCourseDetails.setLayout(new GridLayout(4, 1));
@@ -348,7 +377,6 @@ public class WolfSchedulerGUI extends JFrame  {
 						JOptionPane.showMessageDialog(WolfSchedulerGUI.this, iae.getMessage());
 					}
 				}
-				updateTables();
 			} else if (e.getSource() == btnRemoveCourse) {
 				int row = tableSchedule.getSelectedRow();
 				if (row == -1 || row == tableSchedule.getRowCount()) {
@@ -356,10 +384,8 @@ public class WolfSchedulerGUI extends JFrame  {
 				} else {
 					scheduler.removeCourseFromSchedule(tableSchedule.getValueAt(row, 0).toString(), tableSchedule.getValueAt(row, 1).toString());
 				}
-				updateTables();
 			} else if (e.getSource() == btnReset) {
 				scheduler.resetSchedule();
-				updateTables();
 			} else if (e.getSource() == btnDisplay) {
 				cardLayout.show(panel, SCHEDULE_PANEL);
 				pnlSchedule.updateFinalizedTable();
@@ -370,6 +396,10 @@ public class WolfSchedulerGUI extends JFrame  {
 					JOptionPane.showMessageDialog(WolfSchedulerGUI.this, "Invalid title.");
 				}
 				borderSchedule.setTitle(scheduler.getScheduleTitle());
+			} else if (e.getSource() == btnCancelLoad) {
+				if (loader != null) {
+					loader.cancel(false);
+				}
 			}
 			
 			WolfSchedulerGUI.this.repaint();
@@ -377,11 +407,17 @@ public class WolfSchedulerGUI extends JFrame  {
 		}
 		
 		/**
-		 * Updates the catalog and schedule tables.
+		 * Starts loading the catalog from the given file in the background.  The
+		 * catalog table fills in as courses are read, and the schedule can be
+		 * used while the load runs.
+		 * @param fileName file to load the catalog from
 		 */
-		private void updateTables() {
-			catalogTableModel.updateData();
-			scheduleTableModel.updateData();
+		private void loadCatalog(String fileName) {
+			loader = new CatalogLoader(fileName);
+			btnCancelLoad.setEnabled(true);
+			prgLoad.setValue(0);
+			prgLoad.setString("Loading catalog...");
+			loader.execute();
 		}
 		
 		/**
@@ -400,19 +436,118 @@ public class WolfSchedulerGUI extends JFrame  {
 			}
 		}
 		
+		/**
+		 * {@link CatalogLoader} reads the catalog file off the event dispatch thread
+		 * and adds each batch of {@link Course}s to the {@link WolfScheduler} on the
+		 * event dispatch thread as it arrives.
+		 */
+		private class CatalogLoader extends SwingWorker<Void, ArrayList<Course>> {
+			
+			/** File the catalog is loaded from */
+			private String fileName;
+			
+			/**
+			 * Constructs the {@link CatalogLoader} and has it update the progress
+			 * bar as the file is read.
+			 * @param fileName file to load the catalog from
+			 */
+			public CatalogLoader(String fileName) {
+				this.fileName = fileName;
+				addPropertyChangeListener(new PropertyChangeListener() {
+					
+					@Override
+					public void propertyChange(PropertyChangeEvent evt) {
+						if ("progress".equals(evt.getPropertyName())) {
+							prgLoad.setValue((Integer) evt.getNewValue());
+						}
+					}
+					
+				});
+			}
+			
+			/**
+			 * Reads the catalog file, publishing each batch of {@link Course}s.
+			 * Stops early if the load is canceled.
+			 * @return nothing
+			 * @throws Exception if the file cannot be read
+			 */
+			@Override
+			protected Void doInBackground() throws Exception {
+				CourseRecordIO.readCourseRecords(fileName, new CourseRecordHandler() {
+					
+					@Override
+					public boolean coursesRead(ArrayList<Course> courses, long bytesRead, long totalBytes) {
+						if (isCancelled()) {
+							return false;
+						}
+						publish(courses);
+						if (totalBytes > 0) {
+							setProgress((int) (bytesRead * 100 / totalBytes));
+						}
+						return true;
+					}
+					
+				});
+				return null;
+			}
+			
+			/**
+			 * Adds the published {@link Course}s to the catalog and inserts their rows.
+			 * Batches published before a cancel are still added, since the progress bar
+			 * already counted them, and the canceled message is updated to match.
+			 * @param batches batches of courses read since the last call
+			 */
+			@Override
+			protected void process(List<ArrayList<Course>> batches) {
+				for (ArrayList<Course> batch : batches) {
+					int first = scheduler.getCatalogSize();
+					scheduler.addCoursesToCatalog(batch);
+					int last = scheduler.getCatalogSize() - 1;
+					if (last >= first) {
+						catalogTableModel.fireTableRowsInserted(first, last);
+					}
+				}
+				if (isCancelled()) {
+					prgLoad.setString("Load canceled (" + scheduler.getCatalogSize() + " courses)");
+				}
+			}
+			
+			/**
+			 * Reports how the load finished.
+			 */
+			@Override
+			protected void done() {
+				btnCancelLoad.setEnabled(false);
+				if (isCancelled()) {
+					prgLoad.setString("Load canceled (" + scheduler.getCatalogSize() + " courses)");
+					return;
+				}
+				try {
+					get();
+					prgLoad.setValue(100);
+					prgLoad.setString("Loaded " + scheduler.getCatalogSize() + " courses");
+				} catch (InterruptedException | ExecutionException e) {
+					prgLoad.setString("Load failed");
+					JOptionPane.showMessageDialog(WolfSchedulerGUI.this, "Cannot find file.");
+				}
+			}
+		}
+		
 		/**
 		 * {@link CourseTableModel} is the object underlying the {@link JTable} object that displays
-		 * the list of {@link Course}s to the user.
+		 * the list of {@link Course}s to the user.  The catalog model reads each cell straight
+		 * from the {@link WolfScheduler} as it's painted, so the catalog is never copied.  The
+		 * schedule model listens to the {@link WolfScheduler} and only updates the rows that change.
 		 * @author Sarah Heckman
 		 */
-		private class CourseTableModel extends AbstractTableModel {
+		private class CourseTableModel extends AbstractTableModel implements ScheduleListener {
 			
 			/** ID number used for object serialization. */
 			private static final long serialVersionUID = 1L;
 			/** Column names for the table */
 			private String [] columnNames = {"Name", "Section", "Title"};
-			/** Data stored in the table */
-			private Object [][] data;
+			/** Data stored in the table, only used for the schedule */
+			private ArrayList<Object []> data = new ArrayList<Object []>();
 			/** Boolean flag if the model applies to the catalog or schedule */
 			private boolean catalog;
 			
@@ -423,7 +558,10 @@ public class WolfSchedulerGUI extends JFrame  {
 			 */
 			public CourseTableModel(boolean catalog) {
 				this.catalog = catalog;
-				updateData();
+				if (!catalog) {
+					updateData();
+					scheduler.addScheduleListener(this);
+				}
 			}
 
 			/**
@@ -439,9 +577,9 @@ public class WolfSchedulerGUI extends JFrame  {
 			 * @return the number of rows in the table.
 			 */
 			public int getRowCount() {
-				if (data == null) 
-					return 0;
-				return data.length;
+				if (catalog)
+					return scheduler.getCatalogSize();
+				return data.size();
 			}
 			
 			/**
@@ -460,30 +598,68 @@ public class WolfSchedulerGUI extends JFrame  {
 			 * @return the data at the given location.
 			 */
 			public Object getValueAt(int row, int col) {
-				if (data == null)
-					return null;
-				return data[row][col];
+				if (catalog)
+					return scheduler.getCatalogCell(row, col);
+				return data.get(row)[col];
 			}
 			
 			/**
-			 * Sets the given value to the given {row, col} location.
+			 * Sets the given value to the given {row, col} location.  The catalog
+			 * is read-only, so this does nothing for the catalog model.
 			 * @param value Object to modify in the data.
 			 * @param row location to modify the data.
 			 * @param col location to modify the data.
 			 */
 			public void setValueAt(Object value, int row, int col) {
-				data[row][col] = value;
+				if (catalog)
+					return;
+				data.get(row)[col] = value;
 				fireTableCellUpdated(row, col);
 			}
 			
 			/**
-			 * Updates the given model with {@link Course} information from the {@link WolfScheduler}.
+			 * Updates the schedule model with {@link Course} information from the {@link WolfScheduler}.
 			 */
 			private void updateData() {
-				if (catalog) {
-					data = scheduler.getCourseCatalog();
-				} else {
-					data = scheduler.getScheduledCourses();
+				Object [][] rows = scheduler.getScheduledCourses();
+				data = new ArrayList<Object []>(rows.length);
+				for (int i = 0; i < rows.length; i++) {
+					data.add(rows[i]);
+				}
+				fireTableDataChanged();
+			}
+			
+			/**
+			 * Inserts the row for a {@link Course} added to the schedule.
+			 * @param index row the course was added at
+			 * @param course course that was added
+			 */
+			@Override
+			public void courseAdded(int index, Course course) {
+				data.add(index, new Object [] {course.getName(), course.getSection(), course.getTitle()});
+				fireTableRowsInserted(index, index);
+			}
+			
+			/**
+			 * Deletes the row for a {@link Course} removed from the schedule.
+			 * @param index row the course was removed from
+			 * @param course course that was removed
+			 */
+			@Override
+			public void courseRemoved(int index, Course course) {
+				data.remove(index);
+				fireTableRowsDeleted(index, index);
+			}
+			
+			/**
+			 * Deletes every row after the schedule is reset.
+			 */
+			@Override
+			public void scheduleReset() {
+				int rows = data.size();
+				data.clear();
+				if (rows > 0) {
+					fireTableRowsDeleted(0, rows - 1);
 				}
 			}
 		}